@@ -2,6 +2,7 @@ plugins {
     id("com.github.johnrengelman.shadow") version "8.1.1"
     id("io.micronaut.application") version "4.4.4"
     id("io.micronaut.aot") version "4.4.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 version = "0.1"
@@ -20,6 +21,7 @@ dependencies {
     implementation("io.micronaut.serde:micronaut-serde-jackson")
     implementation("io.micronaut:micronaut-http-server-netty")
     implementation("io.micronaut:micronaut-http")
+    implementation("io.micronaut:micronaut-management")
     compileOnly("io.micronaut:micronaut-http-client")
     runtimeOnly("ch.qos.logback:logback-classic")
     testImplementation ("io.micronaut.test:micronaut-test-spock")
@@ -68,6 +70,98 @@ micronaut {
     }
 }
 
+// Production error pages only depend on status, locale and message bundles, so they are rendered here once
+// and packaged into every jar, including the AOT-optimized ones, instead of on every request.
+val prerenderedErrorPages = layout.buildDirectory.dir("generated/error-pages")
+val prerenderErrorPages by tasks.registering(JavaExec::class) {
+    group = "build"
+    description = "Pre-renders the production error pages for every locale in error.pages.locales."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass = "example.com.exceptions.response.error.ErrorPagePrerenderer"
+    args(prerenderedErrorPages.get().asFile.absolutePath)
+    inputs.files(sourceSets.main.get().runtimeClasspath)
+    outputs.dir(prerenderedErrorPages)
+}
+
+tasks.withType<Jar>().configureEach {
+    from(prerenderErrorPages)
+}
+
+tasks.matching { it.name == "run" || it.name == "optimizedRun" }.configureEach {
+    (this as JavaExec).classpath(prerenderErrorPages)
+}
+
+
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    // e.g. ./gradlew jmh -Pjmh.includes=ErrorProviderBenchmark to run a single benchmark class
+    providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+}
+
+// In-process load test of the error endpoints, e.g. ./gradlew loadTest -Ploadtest.rate=5000 -Ploadtest.environments=production
+val loadtest by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+dependencies {
+    "loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
+}
+
+val loadTest by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Drives the embedded server with error traffic and reports latency percentiles per scenario."
+    classpath = loadtest.runtimeClasspath + files(prerenderErrorPages)
+    mainClass = "example.com.exceptions.response.error.ErrorLoadTest"
+    jvmArgs("-Xms512m", "-Xmx512m")
+    listOf("rate", "concurrency", "warmup-seconds", "duration-seconds", "environments", "scenarios").forEach { name ->
+        providers.gradleProperty("loadtest.$name").orNull?.let { systemProperty("loadtest.$name", it) }
+    }
+    systemProperty("loadtest.output", layout.buildDirectory.dir("loadtest").get().asFile.absolutePath)
+}
+
+// Class data sharing: trainCds runs a workload rendering every kind of error from the shadow jar and dumps the
+// classes it loaded into a dynamic archive; runWithCds starts the application with it. The archive only matches the
+// jar it was trained on, so both tasks and startupBenchmark use the same jar path.
+val shadowJarFile = tasks.shadowJar.flatMap { it.archiveFile }
+val cdsArchive = layout.buildDirectory.file("cds/application.jsa")
+
+val trainCds by tasks.registering(JavaExec::class) {
+    group = "build"
+    description = "Runs the CDS training workload against the shadow jar and writes the dynamic CDS archive."
+    classpath = files(shadowJarFile)
+    mainClass = "example.com.exceptions.response.error.CdsTraining"
+    jvmArgs("-XX:ArchiveClassesAtExit=${cdsArchive.get().asFile.absolutePath}")
+    inputs.file(shadowJarFile)
+    outputs.file(cdsArchive)
+    doFirst { cdsArchive.get().asFile.parentFile.mkdirs() }
+}
+
+val runWithCds by tasks.registering(JavaExec::class) {
+    group = "application"
+    description = "Runs the shadow jar with the CDS archive written by trainCds."
+    dependsOn(trainCds)
+    classpath = files(shadowJarFile)
+    mainClass = "example.com.exceptions.response.error.Application"
+    jvmArgs("-XX:SharedArchiveFile=${cdsArchive.get().asFile.absolutePath}")
+}
+
+// e.g. ./gradlew startupBenchmark -Pstartup.runs=10 -Pstartup.environment=development
+val startupBenchmark by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Measures time to the first response and first error responses of the shadow jar, with and without CDS and eager provider initialisation."
+    dependsOn(trainCds)
+    classpath = loadtest.runtimeClasspath
+    mainClass = "example.com.exceptions.response.error.StartupBenchmark"
+    inputs.file(shadowJarFile)
+    systemProperty("startup.archive", cdsArchive.get().asFile.absolutePath)
+    doFirst { systemProperty("startup.jar", shadowJarFile.get().asFile.absolutePath) }
+    listOf("runs", "environment").forEach { name ->
+        providers.gradleProperty("startup.$name").orNull?.let { systemProperty("startup.$name", it) }
+    }
+}
 
 tasks.named<io.micronaut.gradle.docker.NativeImageDockerfile>("dockerfileNative") {
     jdkVersion = "21"
@@ -0,0 +1,99 @@
+package example.com.exceptions.response.error;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Compares the CPU cost per response of sending an HTML error page as is, from a stored pre-compressed variant,
+ * through the pooled deflater and through a fresh deflater per response, as on-the-fly server compression does.
+ * Bytes on the wire per response are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorCompressionBenchmark {
+
+    public enum Variant {
+        IDENTITY,
+        PRECOMPRESSED,
+        POOLED_DEFLATER,
+        FRESH_DEFLATER
+    }
+
+    @Param({"IDENTITY", "PRECOMPRESSED", "POOLED_DEFLATER", "FRESH_DEFLATER"})
+    Variant variant;
+
+    @Param({"GZIP", "DEFLATE"})
+    ContentCoding coding;
+
+    @Param({"0", "50", "500"})
+    int stackLines;
+
+    private byte[] page;
+    private CompressedBody stored;
+    private ErrorBodyCompressor compressor;
+    private int wireBytes;
+
+    @Setup
+    public void setUp() {
+        ErrorPageTemplate template = ErrorPageTemplate.compile(ErrorPageTemplateFactory.DEFAULT_TEMPLATE, Map.of(
+                "styles", "<style>" + ErrorPageAssets.CSS + "</style>",
+                "scripts", "<script>" + ErrorPageAssets.JAVASCRIPT + "</script>"));
+        StringBuilder sections = new StringBuilder();
+        for (int i = 0; i < stackLines; i++) {
+            sections.append("<div class=\"stack-line\">\tat example.com.service.Layer")
+                    .append(i % 7).append(".call(Layer").append(i % 7).append(".java:").append(10 + i).append(")</div>");
+        }
+        String[] values = ErrorPageTemplate.newValues();
+        values[ErrorPageTemplate.Slot.STATUS.ordinal()] = "500";
+        values[ErrorPageTemplate.Slot.TITLE.ordinal()] = "Internal Server Error";
+        values[ErrorPageTemplate.Slot.SECTIONS.ordinal()] = sections.toString();
+        page = template.render(values).getBytes(StandardCharsets.UTF_8);
+        stored = new CompressedBody(page);
+        stored.bytes(coding);
+        compressor = new ErrorBodyCompressor(6, 0, 4);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        byte[] encoded = switch (variant) {
+            case IDENTITY -> page;
+            case PRECOMPRESSED -> stored.bytes(coding);
+            case POOLED_DEFLATER -> compressor.compress(page, coding);
+            case FRESH_DEFLATER -> {
+                Deflater deflater = new Deflater(6, coding == ContentCoding.GZIP);
+                try {
+                    yield ErrorBodyCompressor.encode(page, coding, deflater, new byte[8192]);
+                } finally {
+                    deflater.end();
+                }
+            }
+        };
+        wireBytes = encoded.length;
+        return encoded;
+    }
+
+    @TearDown
+    public void report() {
+        System.out.printf("%n%s/%s with %d stack lines: %d bytes on the wire per response (identity %d)%n",
+                variant, coding, stackLines, wireBytes, page.length);
+    }
+}
@@ -0,0 +1,127 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.hateoas.JsonError;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import io.micronaut.serde.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding one error model as the default JSON body, serialized the way the server does, with the
+ * compact {@link ErrorFormat}s. The model is built once, so only the encoding is measured. Payload sizes are
+ * printed once per trial, as JMH only reports time and allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorFormatBenchmark {
+
+    @Param({"json", "PROBLEM_JSON", "CBOR", "TEXT"})
+    String format;
+
+    @Param({"0", "5"})
+    int validationErrors;
+
+    @Param({"development", "production"})
+    String environment;
+
+    private ApplicationContext context;
+    private DefaultJsonProvider jsonProvider;
+    private ObjectMapper objectMapper;
+    private ErrorContext errorContext;
+    private HttpResponse<?> response;
+    private ErrorModel model;
+    private ErrorFormat compact;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = ApplicationContext.run(Map.of(
+                "micronaut.environment", environment,
+                "error.degraded.rate-threshold", Integer.MAX_VALUE,
+                "error.offload.enabled", false));
+        jsonProvider = context.getBean(DefaultJsonProvider.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        compact = format.equals("json") ? null : ErrorFormat.valueOf(format);
+
+        List<Error> errors = new ArrayList<>();
+        for (int i = 0; i < validationErrors; i++) {
+            String path = "order.lines[" + i + "].sku";
+            errors.add(new Error() {
+                @Override
+                public String getMessage() {
+                    return "must not be blank";
+                }
+
+                @Override
+                public Optional<String> getPath() {
+                    return Optional.of(path);
+                }
+            });
+        }
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.POST, "/orders/42/lines?expand=sku", null);
+        Throwable exception = ErrorProviderBenchmark.exception(40, 1, true);
+        errorContext = new ErrorContext() {
+            @Override
+            public HttpRequest<?> getRequest() {
+                return request;
+            }
+
+            @Override
+            public Optional<Throwable> getRootCause() {
+                return Optional.of(exception);
+            }
+
+            @Override
+            public List<Error> getErrors() {
+                return errors;
+            }
+        };
+        response = HttpResponse.status(validationErrors > 0 ? HttpStatus.BAD_REQUEST : HttpStatus.INTERNAL_SERVER_ERROR);
+        jsonProvider.body(errorContext, response);
+        model = context.getBean(ErrorModels.class).of(errorContext, response);
+        System.out.printf("%n%s, %d validation errors, %s: %d bytes%n", format, validationErrors, environment,
+                encode().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (compact != null) {
+            return compact.write(model);
+        }
+        JsonError body = jsonProvider.body(errorContext, response);
+        return objectMapper.writeValueAsBytes(body);
+    }
+}
@@ -0,0 +1,225 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.convert.value.MutableConvertibleValues;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import io.micronaut.serde.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DefaultHtmlProvider#body} and {@link DefaultJsonProvider#body}, the latter including
+ * serialization, against a started application context. Every invocation uses a new request, as the server
+ * does, so nothing carries over between errors except the application-wide caches.
+ * <p>
+ * The full matrix is large; narrow it with {@code ./gradlew jmh -Pjmh.includes=ErrorProviderBenchmark.html}, or run
+ * the benchmark jar with JMH options, e.g.
+ * {@code java -jar build/libs/*-jmh.jar ErrorProviderBenchmark -p environment=development -p stackDepth=1000}.
+ * The GC profiler reports allocated bytes per operation next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorProviderBenchmark {
+
+    private static final String[] LOCALES = {
+            "en", "de", "fr", "es", "it", "pt", "nl", "sv", "pl", "ja", "zh", "ko"
+    };
+
+    @Param({"10", "100", "1000"})
+    int stackDepth;
+
+    @Param({"0", "3"})
+    int causeDepth;
+
+    @Param({"0", "5"})
+    int validationErrors;
+
+    @Param({"development", "production"})
+    String environment;
+
+    @Param({"1", "12"})
+    int locales;
+
+    @Param({"true", "false"})
+    boolean sources;
+
+    @Param({"512", "0"})
+    int fragmentCacheEntries;
+
+    private ApplicationContext context;
+    private DefaultHtmlProvider htmlProvider;
+    private DefaultJsonProvider jsonProvider;
+    private ObjectMapper objectMapper;
+    private Throwable exception;
+    private List<Error> errors;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("micronaut.environment", environment);
+        properties.put("error.pages.locales", String.join(",", List.of(LOCALES).subList(0, locales)));
+        properties.put("error.fragment-cache.max-entries", fragmentCacheEntries);
+        properties.put("error.degraded.rate-threshold", Integer.MAX_VALUE);
+        properties.put("error.degraded.max-concurrent-renders", 1024);
+        properties.put("error.offload.enabled", false);
+        // measures the string render; a streamed page would only be built here, never written
+        properties.put("error.page.streaming.enabled", false);
+        context = ApplicationContext.run(properties);
+        htmlProvider = context.getBean(DefaultHtmlProvider.class);
+        jsonProvider = context.getBean(DefaultJsonProvider.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        exception = exception(stackDepth, causeDepth, sources);
+        errors = new ArrayList<>();
+        for (int i = 0; i < validationErrors; i++) {
+            errors.add(new ValidationError("must not be blank", "order.lines[" + i + "].sku"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String html() {
+        return htmlProvider.body(errorContext(), Response.INTERNAL_SERVER_ERROR);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return objectMapper.writeValueAsBytes(jsonProvider.body(errorContext(), Response.INTERNAL_SERVER_ERROR));
+    }
+
+    private ErrorContext errorContext() {
+        SimpleHttpRequest<Object> request = new SimpleHttpRequest<>(HttpMethod.POST, "/orders/42/lines?expand=sku", null);
+        request.header(HttpHeaders.ACCEPT_LANGUAGE, LOCALES[next++ % locales] + ";q=0.9, en;q=0.5");
+        request.header(HttpHeaders.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64) Benchmark/1.0");
+        return new ErrorContext() {
+            @Override
+            public HttpRequest<?> getRequest() {
+                return request;
+            }
+
+            @Override
+            public Optional<Throwable> getRootCause() {
+                return Optional.of(exception);
+            }
+
+            @Override
+            public List<Error> getErrors() {
+                return errors;
+            }
+        };
+    }
+
+    /**
+     * Builds an exception whose frames alternate between application classes, which keep their frames, and
+     * framework classes, which the default filter hides. Each cause shares the outer half of its trace with the
+     * enclosing one, so common-frame elision has work to do.
+     */
+    static Throwable exception(int depth, int causes, boolean sources) {
+        String application = sources ? ErrorController.class.getName() : "example.com.missing.OrderService";
+        Throwable cause = null;
+        for (int level = causes; level >= 0; level--) {
+            Throwable throwable = level == 0
+                    ? new IllegalStateException("Order 42 could not be priced", cause)
+                    : new IllegalArgumentException("Level " + level + " failed for sku <A-42>", cause);
+            StackTraceElement[] trace = new StackTraceElement[depth];
+            for (int i = 0; i < depth; i++) {
+                boolean shared = i >= depth / 2;
+                String className = i % 3 == 0 ? "io.micronaut.http.server.RouteExecutor" : application;
+                String method = shared ? "handle" : "level" + level;
+                trace[i] = new StackTraceElement(className, method, className.substring(className.lastIndexOf('.') + 1) + ".java", 10 + i % 40);
+            }
+            throwable.setStackTrace(trace);
+            cause = throwable;
+        }
+        return cause;
+    }
+
+    private record ValidationError(String message, String path) implements Error {
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public Optional<String> getPath() {
+            return Optional.of(path);
+        }
+    }
+
+    private static final class Response implements HttpResponse<Object> {
+
+        static final Response INTERNAL_SERVER_ERROR = new Response(HttpStatus.INTERNAL_SERVER_ERROR);
+
+        private final HttpStatus status;
+
+        private Response(HttpStatus status) {
+            this.status = status;
+        }
+
+        @Override
+        public HttpStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public int code() {
+            return status.getCode();
+        }
+
+        @Override
+        public String reason() {
+            return status.getReason();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return null;
+        }
+
+        @Override
+        public MutableConvertibleValues<Object> getAttributes() {
+            return null;
+        }
+
+        @Override
+        public Optional<Object> getBody() {
+            return Optional.empty();
+        }
+    }
+}
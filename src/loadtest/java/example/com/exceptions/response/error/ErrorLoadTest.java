@@ -0,0 +1,195 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.Micronaut;
+import io.micronaut.runtime.server.EmbeddedServer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the embedded server with error traffic at a fixed request rate and records the latency distribution
+ * per scenario and environment.
+ * <p>
+ * Requests are issued on an open model: each one has an intended start time on a fixed schedule, and its
+ * latency is measured from that time, so a stalled server shows up as latency instead of as a lower request rate.
+ * At most {@code loadtest.concurrency} requests are in flight; when all are taken, the schedule falls behind and
+ * the delay counts against the server.
+ * <p>
+ * Settings are system properties, forwarded from Gradle properties by the {@code loadTest} task:
+ * {@code loadtest.rate} (requests per second), {@code loadtest.concurrency}, {@code loadtest.warmup-seconds},
+ * {@code loadtest.duration-seconds}, {@code loadtest.environments}, {@code loadtest.offload},
+ * {@code loadtest.scenarios} and {@code loadtest.output}, where the full percentile distributions are written.
+ * <p>
+ * The healthy scenarios measure {@code /health}, alone and while the HTML exception scenario runs alongside at the
+ * same rate; comparing them with {@code error.offload.enabled} on and off shows how much error rendering delays
+ * unrelated requests on the shared event loops.
+ */
+public final class ErrorLoadTest {
+
+    private static final Scenario EXCEPTION_HTML = new Scenario("exception-html", "GET", "/error", "text/html", 500, null);
+
+    private static final List<Scenario> SCENARIOS = List.of(
+            new Scenario("exception-json", "GET", "/error", "application/json", 500, null),
+            EXCEPTION_HTML,
+            new Scenario("not-found-json", "GET", "/missing/42", "application/json", 404, null),
+            new Scenario("not-found-html", "GET", "/missing/42", "text/html", 404, null),
+            new Scenario("not-allowed-json", "GET", "/create", "application/json", 405, null),
+            new Scenario("not-allowed-html", "GET", "/create", "text/html", 405, null),
+            new Scenario("healthy", "GET", "/health", "application/json", 200, null),
+            new Scenario("healthy-under-errors", "GET", "/health", "application/json", 200, EXCEPTION_HTML));
+
+    private ErrorLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("loadtest.rate", 2000);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 5);
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 20);
+        List<String> environments = List.of(System.getProperty("loadtest.environments", "development,production").split(","));
+        List<String> offloads = List.of(System.getProperty("loadtest.offload", "true,false").split(","));
+        List<String> selected = List.of(System.getProperty("loadtest.scenarios", "").split(","));
+        Path output = Paths.get(System.getProperty("loadtest.output", "build/loadtest"));
+        Files.createDirectories(output);
+
+        System.out.printf("%-12s %-8s %-22s %10s %10s %10s %10s %10s %8s %10s %10s%n", "environment", "offload",
+                "scenario", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "full", "degraded");
+        for (String environment : environments) {
+            for (String offload : offloads) {
+                test(args, environment.trim(), offload.trim(), selected, rate, concurrency, warmupSeconds,
+                        durationSeconds, output);
+            }
+        }
+    }
+
+    private static void test(String[] args, String environment, String offload, List<String> selected, int rate,
+                             int concurrency, int warmupSeconds, int durationSeconds, Path output) throws Exception {
+        ApplicationContext context = Micronaut.build(args)
+                .mainClass(Application.class)
+                .properties(Map.of("micronaut.environment", environment, "micronaut.server.port", -1,
+                        "error.offload.enabled", offload))
+                .start();
+        try (context;
+             ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, concurrency / 4));
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            URI base = context.getBean(EmbeddedServer.class).getURI();
+            ErrorRenderGuard guard = context.getBean(ErrorRenderGuard.class);
+            for (Scenario scenario : SCENARIOS) {
+                if (!selected.getFirst().isBlank() && !selected.contains(scenario.name())) {
+                    continue;
+                }
+                run(client, base, scenario, rate, concurrency, warmupSeconds);
+
+                long full = guard.count(ErrorRenderGuard.Mode.FULL);
+                long degraded = guard.count(ErrorRenderGuard.Mode.DEGRADED);
+                Result result = run(client, base, scenario, rate, concurrency, durationSeconds);
+                Histogram latencies = result.latencies();
+                System.out.printf("%-12s %-8s %-22s %10.0f %10.2f %10.2f %10.2f %10.2f %8d %10d %10d%n",
+                        environment, offload, scenario.name(),
+                        latencies.getTotalCount() / result.seconds(),
+                        millis(latencies.getValueAtPercentile(50)),
+                        millis(latencies.getValueAtPercentile(99)),
+                        millis(latencies.getValueAtPercentile(99.9)),
+                        millis(latencies.getMaxValue()),
+                        result.errors(),
+                        guard.count(ErrorRenderGuard.Mode.FULL) - full,
+                        guard.count(ErrorRenderGuard.Mode.DEGRADED) - degraded);
+                write(output.resolve(environment + "-offload-" + offload + "-" + scenario.name() + ".hgrm"),
+                        latencies);
+            }
+        }
+    }
+
+    private static Result run(HttpClient client, URI base, Scenario scenario, int rate, int concurrency,
+                              int seconds) throws InterruptedException {
+        Thread background = null;
+        if (scenario.background() != null) {
+            background = Thread.ofPlatform().name("loadtest-background").start(() -> {
+                try {
+                    run(client, base, scenario.background(), rate, concurrency, seconds);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        HttpRequest request = scenario.request(base);
+        Recorder recorder = new Recorder(3);
+        LongAdder errors = new LongAdder();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * interval;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                recorder.recordValue(System.nanoTime() - intended);
+                if (failure != null || response.statusCode() != scenario.status()) {
+                    errors.increment();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+        inFlight.release(concurrency);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        if (background != null) {
+            background.join();
+        }
+        return new Result(recorder.getIntervalHistogram(), errors.sum(), elapsed);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static void write(Path file, Histogram latencies) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            latencies.outputPercentileDistribution(out, 1e6);
+        }
+    }
+
+    /**
+     * @param background a scenario run alongside at the same rate and left out of the results, may be {@code null}
+     */
+    private record Scenario(String name, String method, String path, String accept, int status, Scenario background) {
+
+        HttpRequest request(URI base) {
+            return HttpRequest.newBuilder(base.resolve(path))
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .header("Accept", accept)
+                    .header("Accept-Encoding", "gzip")
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+        }
+    }
+
+    private record Result(Histogram latencies, long errors, double seconds) {}
+}
@@ -0,0 +1,134 @@
+package example.com.exceptions.response.error;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the shadow jar in a fresh JVM, repeatedly, and reports how long it takes from launching the process to
+ * the first successful response and to the first HTML and JSON error responses, with and without the class data
+ * sharing archive of the {@code trainCds} task and with lazy and eager initialisation of the error providers.
+ * <p>
+ * Settings are system properties, set by the {@code startupBenchmark} task: {@code startup.jar},
+ * {@code startup.archive}, {@code startup.runs} and {@code startup.environment}. The application runs on the same
+ * {@code java} as the benchmark, which the archive must match. Variants whose archive does not exist are skipped.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Path jar = Paths.get(System.getProperty("startup.jar"));
+        Path archive = Paths.get(System.getProperty("startup.archive"));
+        int runs = Integer.getInteger("startup.runs", 5);
+        String environment = System.getProperty("startup.environment", "production");
+
+        System.out.printf("%-6s %-6s %14s %14s %14s%n", "cds", "eager", "ready ms", "html error ms", "json error ms");
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build()) {
+            for (boolean cds : new boolean[]{false, true}) {
+                if (cds && !Files.isRegularFile(archive)) {
+                    System.out.printf("%-6s skipped, %s does not exist%n", cds, archive);
+                    continue;
+                }
+                for (boolean eager : new boolean[]{false, true}) {
+                    long[][] samples = new long[3][runs];
+                    for (int run = 0; run < runs; run++) {
+                        long[] sample = launch(client, java, jar, cds ? archive : null, eager, environment);
+                        for (int i = 0; i < sample.length; i++) {
+                            samples[i][run] = sample[i];
+                        }
+                    }
+                    System.out.printf("%-6s %-6s %14.1f %14.1f %14.1f%n", cds, eager,
+                            median(samples[0]), median(samples[1]), median(samples[2]));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return nanoseconds from launch to the first successful response, the first HTML error and the first JSON
+     * error, each request sent once the previous one completed
+     */
+    private static long[] launch(HttpClient client, String java, Path jar, Path archive, boolean eager,
+                                 String environment) throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(List.of(java, "-Xshare:auto"));
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(List.of(
+                "-Dmicronaut.server.port=" + port,
+                "-Dmicronaut.environment=" + environment,
+                "-Derror.eager-init=" + eager,
+                "-cp", jar.toString(),
+                Application.class.getName()));
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            URI base = URI.create("http://localhost:" + port);
+            awaitStatus(client, process, base.resolve("/health"), "application/json", 200, start);
+            long ready = System.nanoTime() - start;
+            awaitStatus(client, process, base.resolve("/error"), "text/html", 500, start);
+            long html = System.nanoTime() - start;
+            awaitStatus(client, process, base.resolve("/error"), "application/json", 500, start);
+            long json = System.nanoTime() - start;
+            return new long[]{ready, html, json};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static void awaitStatus(HttpClient client, Process process, URI uri, String accept, int status,
+                                    long start) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Accept", accept).timeout(TIMEOUT).build();
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != status) {
+                    throw new IllegalStateException(uri + " returned " + response.statusCode() + ", expected " + status);
+                }
+                return;
+            } catch (ConnectException e) {
+                Thread.sleep(1);
+            }
+        }
+        throw new IllegalStateException(uri + " did not respond within " + TIMEOUT);
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        long median = sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+        return median / 1e6;
+    }
+}
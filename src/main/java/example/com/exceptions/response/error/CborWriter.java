@@ -0,0 +1,120 @@
+package example.com.exceptions.response.error;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes the subset of CBOR (RFC 8949) error bodies need: integers, text strings, arrays, maps and null, all with
+ * definite lengths. Values go straight into a growing byte array.
+ */
+public final class CborWriter {
+
+    private static final int UNSIGNED = 0;
+    private static final int NEGATIVE = 1 << 5;
+    private static final int TEXT = 3 << 5;
+    private static final int ARRAY = 4 << 5;
+    private static final int MAP = 5 << 5;
+    private static final int NULL = 0xf6;
+
+    private byte[] buffer;
+    private int size;
+
+    public CborWriter() {
+        this(128);
+    }
+
+    /**
+     * @param capacity the initial buffer size
+     */
+    public CborWriter(int capacity) {
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * @param entries how many key-value pairs follow
+     * @return this writer
+     */
+    public CborWriter map(int entries) {
+        return head(MAP, entries);
+    }
+
+    /**
+     * @param items how many items follow
+     * @return this writer
+     */
+    public CborWriter array(int items) {
+        return head(ARRAY, items);
+    }
+
+    /**
+     * @param value an integer
+     * @return this writer
+     */
+    public CborWriter integer(long value) {
+        return value < 0 ? head(NEGATIVE, -1 - value) : head(UNSIGNED, value);
+    }
+
+    /**
+     * @param value a string, {@code null} writes null
+     * @return this writer
+     */
+    public CborWriter text(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        head(TEXT, bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    /**
+     * @return this writer
+     */
+    public CborWriter nullValue() {
+        ensure(1);
+        buffer[size++] = (byte) NULL;
+        return this;
+    }
+
+    /**
+     * @return the encoded bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private CborWriter head(int majorType, long argument) {
+        ensure(9);
+        if (argument < 24) {
+            buffer[size++] = (byte) (majorType | argument);
+        } else if (argument < 0x100) {
+            buffer[size++] = (byte) (majorType | 24);
+            buffer[size++] = (byte) argument;
+        } else if (argument < 0x10000) {
+            buffer[size++] = (byte) (majorType | 25);
+            write(argument, 2);
+        } else if (argument < 0x100000000L) {
+            buffer[size++] = (byte) (majorType | 26);
+            write(argument, 4);
+        } else {
+            buffer[size++] = (byte) (majorType | 27);
+            write(argument, 8);
+        }
+        return this;
+    }
+
+    private void write(long value, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
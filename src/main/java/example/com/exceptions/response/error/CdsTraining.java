@@ -0,0 +1,53 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.Micronaut;
+import io.micronaut.runtime.server.EmbeddedServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Training workload of the {@code trainCds} Gradle task. Runs from the shadow jar with
+ * {@code -XX:ArchiveClassesAtExit}, starts the application in each environment and sends it requests that
+ * render every kind of error body in both formats, so the classes they load end up in the archive. Exits the
+ * JVM when done, which writes the archive.
+ */
+public final class CdsTraining {
+
+    private static final List<String> PATHS = List.of("/health", "/error", "/missing/42", "/create");
+    private static final List<String> ACCEPT = List.of("application/json", "text/html");
+    private static final int ROUNDS = 20;
+
+    private CdsTraining() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (String environment : List.of("development", "production")) {
+                try (ApplicationContext context = Micronaut.build(args)
+                        .mainClass(Application.class)
+                        .properties(Map.of("micronaut.environment", environment, "micronaut.server.port", -1))
+                        .start()) {
+                    URI base = context.getBean(EmbeddedServer.class).getURI();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (String path : PATHS) {
+                            for (String accept : ACCEPT) {
+                                client.send(HttpRequest.newBuilder(base.resolve(path))
+                                        .header("Accept", accept)
+                                        .header("Accept-Encoding", "gzip")
+                                        .build(), HttpResponse.BodyHandlers.discarding());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        System.exit(0);
+    }
+}
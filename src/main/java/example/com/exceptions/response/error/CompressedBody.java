@@ -0,0 +1,94 @@
+package example.com.exceptions.response.error;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.Deflater;
+
+/**
+ * A static error body together with its compressed variants, each encoded at most once. Providers attach it to
+ * the request under {@link #ATTRIBUTE} so {@link ErrorCompressionFilter} can send the stored variant instead of
+ * compressing the same bytes again, and {@link ErrorCacheFilter} can tag it with an entity tag computed once.
+ */
+public final class CompressedBody {
+
+    public static final String ATTRIBUTE = CompressedBody.class.getName();
+
+    private final String text;
+    private final byte[] identity;
+    private volatile byte[] gzip;
+    private volatile byte[] deflate;
+    private volatile String tag;
+
+    public CompressedBody(String text) {
+        this.text = text;
+        this.identity = text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public CompressedBody(byte[] identity) {
+        this.text = null;
+        this.identity = identity;
+    }
+
+    /**
+     * @return the body as text, {@code null} for bodies created from bytes
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * @param coding the negotiated coding
+     * @return the encoded body, not to be modified
+     */
+    public byte[] bytes(ContentCoding coding) {
+        return switch (coding) {
+            case IDENTITY -> identity;
+            case GZIP -> {
+                byte[] encoded = gzip;
+                if (encoded == null) {
+                    encoded = encode(coding);
+                    gzip = encoded;
+                }
+                yield encoded;
+            }
+            case DEFLATE -> {
+                byte[] encoded = deflate;
+                if (encoded == null) {
+                    encoded = encode(coding);
+                    deflate = encoded;
+                }
+                yield encoded;
+            }
+        };
+    }
+
+    /**
+     * @param coding the coding the body is sent in
+     * @return a strong entity tag of that variant, derived from a SHA-256 digest of the identity body
+     */
+    public String etag(ContentCoding coding) {
+        String base = tag;
+        if (base == null) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity);
+                base = Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            tag = base;
+        }
+        return coding == ContentCoding.IDENTITY ? '"' + base + '"' : '"' + base + '-' + coding.token() + '"';
+    }
+
+    private byte[] encode(ContentCoding coding) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, coding == ContentCoding.GZIP);
+        try {
+            return ErrorBodyCompressor.encode(identity, coding, deflater, new byte[8192]);
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package example.com.exceptions.response.error;
+
+import java.util.Locale;
+
+/**
+ * The content codings error bodies are available in, negotiated from {@code Accept-Encoding}.
+ */
+public enum ContentCoding {
+    IDENTITY("identity"),
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * @return the {@code Content-Encoding} token
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Picks the coding with the highest quality value, preferring gzip on ties.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header, may be {@code null}
+     * @return the coding to respond with
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String coding = part;
+            double quality = 1;
+            int semicolon = part.indexOf(';');
+            if (semicolon >= 0) {
+                coding = part.substring(0, semicolon);
+                quality = quality(part.substring(semicolon + 1));
+            }
+            switch (coding.trim().toLowerCase(Locale.ROOT)) {
+                case "gzip", "x-gzip" -> gzip = quality;
+                case "deflate" -> deflate = quality;
+                case "*" -> wildcard = quality;
+                default -> { }
+            }
+        }
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : IDENTITY;
+    }
+
+    private static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
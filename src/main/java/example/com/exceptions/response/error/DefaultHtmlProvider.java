@@ -1,531 +1,365 @@
 package example.com.exceptions.response.error;
 
-import io.micronaut.context.MessageSource;
+import example.com.exceptions.response.error.ErrorPageTemplate.Slot;
 import io.micronaut.context.annotation.Primary;
 import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.NonNull;
-import io.micronaut.core.util.LocaleResolver;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.hateoas.JsonError;
 import io.micronaut.http.server.exceptions.response.ErrorContext;
 import io.micronaut.http.server.exceptions.response.HtmlErrorResponseBodyProvider;
 import io.micronaut.http.server.exceptions.response.JsonErrorResponseBodyProvider;
-import io.micronaut.http.util.HtmlSanitizer;
 import io.micronaut.serde.ObjectMapper;
+import io.netty.buffer.ByteBufAllocator;
 import jakarta.inject.Singleton;
 
-import java.io.*;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.text.MessageFormat;
 import java.util.*;
-
-import static io.micronaut.http.HttpStatus.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Singleton
 @Primary
 public class DefaultHtmlProvider implements HtmlErrorResponseBodyProvider {
 
-    @Value("${filter.prefix.micronaut}")
-    protected String filterPrefixMicronaut;
-
-    @Value("${filter.prefix.netty}")
-    protected String filterPrefixNetty;
-
-    @Value("${filter.unknown.source:Unknown Source}")
-    protected String filterUnknownSource;
-
     @Value("${micronaut.environment:development}")
     protected String environment;
 
-    private static final Map<Integer, String> DEFAULT_ERROR_BOLD = Map.of(
-            NOT_FOUND.getCode(), "The page is not available",
-            REQUEST_ENTITY_TOO_LARGE.getCode(), "The file or data you are trying to upload exceeds the size",
-            INTERNAL_SERVER_ERROR.getCode(), "An internal server error occurred"
-    );
-
-    private static final Map<Integer, String> DEFAULT_ERROR = Map.of(
-            NOT_FOUND.getCode(), "You may have mistyped the address or the page may have moved",
-            REQUEST_ENTITY_TOO_LARGE.getCode(), "Please try again with a smaller file"
-    );
-
-    private static final String CSS = """
-            *, *::before, *::after {
-              box-sizing: border-box;
-            }
-            * {
-              margin: 0;
-            }
-            html {
-              font-size: 16px;
-              height: 100%;
-            }
-            body {
-              color: #0d0c0c;
-              font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
-              font-size: clamp(1rem, 2.5vw, 1.2rem);
-              -webkit-font-smoothing: antialiased;
-              font-style: normal;
-              font-weight: 400;
-              letter-spacing: -0.0025em;
-              line-height: 1.6;
-              min-height: 100vh;
-              margin: 0;
-              padding: 0;
-              display: flex;
-              justify-content: center;
-              align-items: center;
-              background-color: #c3cfe2;
-              text-rendering: optimizeLegibility;
-              -webkit-text-size-adjust: 100%;
-            }
-            h1 {
-                font-size: 2em;
-                color: #333;
-                margin-bottom: 0.5em;
-            }
-            h2 {
-                font-size: 5.5em;
-                opacity: 0.3;
-                color: #4A90E2;
-                text-shadow: 2px 2px 5px rgba(0, 0, 0, 0.3);
-                transition: opacity 0.3s ease-in-out;
-                margin-top: -0.2em;
-                margin-bottom: 0.2em;
-            }
-            h2:hover {
-                opacity: 1;
-            }
-            a {
-              color: inherit;
-              font-weight: 700;
-              text-decoration: underline;
-              text-underline-offset: 0.1em;
-              transition: color 0.3s ease, transform 0.2s ease;
-            }
-            a:hover {
-              color: #4A90E2;
-              transform: scale(1.05);
-            }
-            b, strong {
-              font-weight: 700;
-              color: #333;
-            }
-            i, em {
-              font-style: italic;
-              color: #333;
-            }
-            main {
-              display: flex;
-              flex-direction: column;
-              gap: 1.5em;
-              padding: 2em;
-              background-color: #f5f7fa;
-              border-radius: 8px;
-              box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);
-              width: 75%;
-              margin: 2em;
-            }
-            main header {
-              width: 100%;
-              border-bottom: 2px solid #ddd;
-              padding-bottom: 1.5em;
-              margin-bottom: 1em;
-            }
-            main article {
-              width: 100%;
-              color: #d9534f;
-              font-size: 1.2rem;
-              line-height: 1.5;
-              margin-bottom: 1em;
-            }
-            .error-message {
-              background-color: transparent;
-              color: #333;
-              border: none;
-              padding: 0;
-              margin-top: 1.5em;
-              font-size: 1rem;
-              text-align: left;
-              font-family: 'Courier New', Courier, monospace;
-            }
-            .stacktrace-container, .code-container, .request-container {
-              margin-top: 1em;
-              border: 2px solid #ddd;
-              border-radius: 4px;
-              overflow: hidden;
-              margin-bottom: 1em;
-            }
-            .section-header {
-              background: #f5f5f5;
-              padding: 10px 15px;
-              border-bottom: 1px solid #ddd;
-              display: flex;
-              justify-content: space-between;
-              align-items: center;
-              font-size: 1.1em;
-              font-weight: 500;
-            }
-            .stacktrace-header {
-              background: #f5f5f5;
-              padding: 10px 15px;
-              cursor: pointer;
-              border-bottom: 1px solid #ddd;
-              display: flex;
-              justify-content: space-between;
-              align-items: center;
-            }
-            .stacktrace-content, .code-content {
-              padding: 15px;
-              background: #fff;
-              overflow-x: auto;
-              display: none;
-            }
-            .code-box {
-              background-color: #f8f8f8;
-              border-radius: 5px;
-              margin-bottom: 20px;
-              font-family: monospace;
-              white-space: pre-wrap;
-              font-size: 0.9em;
-              line-height: 1.4;
-            }
-            .stack-line {
-              padding: 2px 6px;
-              color: #333;
-            }
-            .code-snippet {
-              background-color: #f8f8f8;
-              padding: 10px;
-              border-radius: 5px;
-              margin: 10px 0;
-              border-left: 4px solid #4A90E2;
-            }
-            .code-line {
-              padding: 2px 6px;
-              white-space: pre;
-            }
-            .highlighted-line {
-              background-color: #ffecec;
-              color: #d8000c;
-              padding: 2px 6px;
-              border-left: 4px solid #d8000c;
-            }
-            .line-number {
-              color: #999;
-              margin-right: 10px;
-              display: inline-block;
-              min-width: 40px;
-              text-align: right;
-            }
-            .collapsible {
-              cursor: pointer;
-              user-select: none;
-            }
-            .request-info {
-              padding: 15px;
-              border-radius: 5px;
-              margin-top: 10px;
-              margin-bottom: 10px;
-            }
-            .request-info h3 {
-              margin-top: 0;
-              margin-bottom: 10px;
-              color: #333;
-            }
-            .request-info-item {
-              margin: 5px 0;
-              font-family: monospace;
-            }
-            .button {
-              padding: 5px 10px;
-              background: #4A90E2;
-              color: white;
-              border: none;
-              border-radius: 3px;
-              cursor: pointer;
-              font-size: 14px;
-              transition: background 0.3s ease;
-              margin-left: 10px;
-            }
-            .button:hover {
-              background: #3a7bc8;
-            }
-            .copy-button {
-              float: right;
-            }
-            .switch {
-              position: relative;
-              display: inline-block;
-              width: 50px;
-              height: 24px;
-              margin-left: 10px;
-            }
-            .switch input {
-              opacity: 0;
-              width: 0;
-              height: 0;
-            }
-            .slider {
-              position: absolute;
-              cursor: pointer;
-              top: 0;
-              left: 0;
-              right: 0;
-              bottom: 0;
-              background-color: #ccc;
-              transition: .4s;
-              border-radius: 24px;
-            }
-            .slider:before {
-              position: absolute;
-              content: "";
-              height: 16px;
-              width: 16px;
-              left: 4px;
-              bottom: 4px;
-              background-color: white;
-              transition: .4s;
-              border-radius: 50%;
-            }
-            input:checked + .slider {
-              background-color: #4A90E2;
-            }
-            input:checked + .slider:before {
-              transform: translateX(26px);
-            }
-            .filter-label {
-              font-size: 14px;
-              margin-right: 10px;
-            }
-            .filter-toggle {
-              display: flex;
-              align-items: center;
-              margin-left: auto;
-            }
-            .error-section, .source-code-section, .exception-section {
-              margin-bottom: 20px;
-            }
-            .file-name {
-              font-weight: bold;
-              margin-bottom: 5px;
-              color: #333;
-            }
-            .json-response-section {
-              margin-top: 1em;
-              margin-bottom: 1em;
-            }
-            .json-response-section pre {
-              white-space: pre-wrap;
-              word-wrap: break-word;
-              overflow-x: auto;
-              max-width: 100%;
-              background-color: #f8f8f8;
-              padding: 10px;
-              border-radius: 4px;
-              border: 1px solid #ddd;
-            }
-    """;
-
-    private static final String JAVASCRIPT = """
-        document.addEventListener('DOMContentLoaded', function() {
-            const filterToggle = document.getElementById('filter-toggle');
-            if (filterToggle) {
-              filterToggle.addEventListener('change', function () {
-                const filteredStackTrace = document.getElementById('filtered-stack-trace');
-                const fullStackTrace = document.getElementById('full-stack-trace');
-                if (this.checked) {
-                  fullStackTrace.style.display = 'block';
-                  filteredStackTrace.style.display = 'none';
-                  expandStackTrace(fullStackTrace);
-                } else {
-                  filteredStackTrace.style.display = 'block';
-                  fullStackTrace.style.display = 'none';
-                  expandStackTrace(filteredStackTrace);
-                }
-              });
-            }
-            function expandStackTrace(stackTraceElement) {
-              const headerElement = stackTraceElement.querySelector('.stacktrace-header.collapsible');
-              const contentElement = stackTraceElement.querySelector('.stacktrace-content');
-              if (headerElement && contentElement) {
-                headerElement.classList.add('active');
-                contentElement.style.display = 'block';
-                const toggleIcon = headerElement.querySelector('.toggle-icon');
-                if (toggleIcon) toggleIcon.textContent = '▲';
-              }
-            }
-            document.querySelectorAll('.copy-button').forEach(function(button) {
-                button.addEventListener('click', function(e) {
-                    e.stopPropagation();
-                    const textToCopy = this.closest('.stacktrace-container').querySelector('.stacktrace-content').innerText;
-                    navigator.clipboard.writeText(textToCopy).then(function() {
-                        const originalText = button.innerText;
-                        button.innerText = 'Copied!';
-                        setTimeout(function() {
-                            button.innerText = originalText;
-                        }, 2000);
-                    });
-                });
-            });
-            document.querySelectorAll('.collapsible').forEach(function(header) {
-                header.addEventListener('click', function() {
-                    const content = this.nextElementSibling;
-                    const toggleIcon = this.querySelector('.toggle-icon');
-                    if (content.style.display === 'none' || content.style.display === '') {
-                        content.style.display = 'block';
-                        if (toggleIcon) toggleIcon.textContent = '▲';
-                    } else {
-                        content.style.display = 'none';
-                        if (toggleIcon) toggleIcon.textContent = '▼';
-                    }
-                });
-            });
-        });
-    """;
-
-    private final HtmlSanitizer htmlSanitizer;
-    private final MessageSource messageSource;
-    private final LocaleResolver<HttpRequest<?>> localeResolver;
+    /**
+     * Whether pages show the request information. Unset, only development pages do, so production pages depend
+     * on the status and locale alone and {@link ErrorCacheFilter} can let clients cache them.
+     */
+    @Value("${error.page.request-info:}")
+    protected String requestInfo;
+
+    @Value("${error.page.streaming.enabled:true}")
+    protected boolean streaming;
+
+    @Value("${error.page.streaming.min-lines:256}")
+    protected int streamingMinLines;
+
+    @Value("${error.page.streaming.chunk-bytes:8192}")
+    protected int streamingChunkBytes;
+
+    private static final int OMITTED_MARKER_RESERVE = 128;
+    private static final int JSON_SLICE_CHARS = 1024;
+    private static final String EXCEPTION_SECTION_OPEN = "<div class=\"exception-section\">";
+    private static final String EXCEPTION_SECTION_CLOSE = "</div>";
+    private static final String STACK_TRACE_CLOSE = "</div></div>";
+    private static final String SOURCE_CODE_OPEN = "<div class=\"source-code-section\">" +
+            "<div class=\"code-container\">" +
+            "<div class=\"stacktrace-header collapsible\">Source Code <span class=\"toggle-icon\">▼</span></div>" +
+            "<div class=\"code-content\">";
+    private static final String SOURCE_CODE_CLOSE = "</div></div></div>";
+    private static final String JSON_SECTION_OPEN = "<div class=\"json-response-section\">" +
+            "<div class=\"stacktrace-header collapsible\">JSON Response <span class=\"toggle-icon\">▼</span></div>" +
+            "<div class=\"stacktrace-content\">" +
+            "<pre style=\"white-space: pre-wrap; overflow-x: auto;\">";
+    private static final String JSON_SECTION_CLOSE = "</pre></div></div>";
+
+    private final ErrorMessageTable messages;
     private final ObjectMapper objectMapper;
     private final JsonErrorResponseBodyProvider<JsonError> jsonErrorResponseBodyProvider;
-
-    DefaultHtmlProvider(HtmlSanitizer htmlSanitizer,
-                        MessageSource messageSource,
-                        LocaleResolver<HttpRequest<?>> localeResolver,
+    private final ErrorPageTemplate template;
+    private final SourceCache sourceCache;
+    private final SourceLocator sourceLocator;
+    private final ErrorModels errorModels;
+    private final ErrorFragmentCache fragmentCache;
+    private final ErrorRenderGuard renderGuard;
+    private final PrerenderedErrorPages prerenderedPages;
+    private final ErrorLimits limits;
+    private final ErrorRenderMetrics metrics;
+    private final RecentErrors recentErrors;
+    private final ErrorRenderOffload offload;
+    private final Map<Integer, CompressedBody> minimalBodies = new ConcurrentHashMap<>();
+
+    DefaultHtmlProvider(ErrorMessageTable messages,
                         ObjectMapper objectMapper,
-                        JsonErrorResponseBodyProvider<JsonError> jsonErrorResponseBodyProvider) {
-        this.htmlSanitizer = htmlSanitizer;
-        this.messageSource = messageSource;
-        this.localeResolver = localeResolver;
+                        JsonErrorResponseBodyProvider<JsonError> jsonErrorResponseBodyProvider,
+                        ErrorPageTemplate template,
+                        SourceCache sourceCache,
+                        SourceLocator sourceLocator,
+                        ErrorModels errorModels,
+                        ErrorFragmentCache fragmentCache,
+                        ErrorRenderGuard renderGuard,
+                        PrerenderedErrorPages prerenderedPages,
+                        ErrorLimits limits,
+                        ErrorRenderMetrics metrics,
+                        RecentErrors recentErrors,
+                        ErrorRenderOffload offload) {
+        this.messages = messages;
         this.objectMapper = objectMapper;
         this.jsonErrorResponseBodyProvider = jsonErrorResponseBodyProvider;
+        this.template = template;
+        this.sourceCache = sourceCache;
+        this.sourceLocator = sourceLocator;
+        this.errorModels = errorModels;
+        this.fragmentCache = fragmentCache;
+        this.renderGuard = renderGuard;
+        this.prerenderedPages = prerenderedPages;
+        this.limits = limits;
+        this.metrics = metrics;
+        this.recentErrors = recentErrors;
+        this.offload = offload;
     }
 
     @Override
     public String body(ErrorContext errorContext, HttpResponse<?> response) {
-        HtmlErrorPage key = error(errorContext, response);
-        try {
-            return html(key, errorContext, response);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        if (errorModels.compact(errorContext, response)) {
+            return minimalBody(response).text();
         }
+        if (readsSources(errorContext)
+                && offload.defer(errorContext.getRequest(), () -> render(errorContext, response))) {
+            return minimalBody(response).text();
+        }
+        return render(errorContext, response);
     }
 
-    private String html(@NonNull HtmlErrorPage htmlErrorPage, ErrorContext errorContext, HttpResponse<?> response) throws IOException {
-        final String errorTitleCode = htmlErrorPage.httpStatusCode() + ".error.title";
-        final String errorTitle = messageSource.getMessage(errorTitleCode, htmlErrorPage.httpStatusReason(), htmlErrorPage.locale());
+    /**
+     * Whether the page may show source snippets, the only part of a render that blocks on I/O. Frames are looked
+     * up in the index of {@link SourceLocator} only, within the frame and cause limits of the stack trace.
+     */
+    private boolean readsSources(ErrorContext errorContext) {
+        if ("production".equalsIgnoreCase(environment)) {
+            return false;
+        }
+        Throwable exception = errorContext.getRootCause().orElse(null);
+        for (int depth = 0; exception != null && depth <= limits.maxCauseDepth(); depth++) {
+            StackTraceElement[] trace = exception.getStackTrace();
+            for (int i = 0; i < trace.length && i < limits.maxFrames(); i++) {
+                if (trace[i].getLineNumber() >= 0 && sourceLocator.locate(trace[i]) != null) {
+                    return true;
+                }
+            }
+            exception = exception.getCause();
+        }
+        return false;
+    }
 
-        String header = "<h1>" + errorTitle + "</h1><h2>" + htmlErrorPage.httpStatusCode() + "</h2>";
+    private String render(ErrorContext errorContext, HttpResponse<?> response) {
+        try (ErrorRenderGuard.Permit permit = renderGuard.acquire(errorContext.getRequest())) {
+            long start = System.nanoTime();
+            StreamingHtmlErrorPage page = stream(permit, errorContext, response, start);
+            if (page != null) {
+                errorContext.getRequest().setAttribute(StreamingHtmlErrorPage.ATTRIBUTE, page);
+                return minimalBody(response).text();
+            }
+            String body = render(permit, errorContext, response);
+            metrics.record(ErrorRenderMetrics.Format.HTML, permit, response.code(), System.nanoTime() - start,
+                    ErrorLimits.utf8Length(body));
+            return body;
+        }
+    }
 
+    private String render(ErrorRenderGuard.Permit permit, ErrorContext errorContext, HttpResponse<?> response) {
+        if (permit.degraded()) {
+            recentErrors.record(errorContext, response);
+            return staticBody(errorContext, minimalBody(response));
+        }
         boolean isProduction = "production".equalsIgnoreCase(environment);
+        ErrorModel model = errorModels.of(errorContext, response);
+        ErrorMessageTable.Messages localized = messages.messages(errorContext.getRequest());
+        if (isProduction) {
+            PrerenderedErrorPages.Page page = prerenderedPages.find(localized.locale(), response.code(), response.reason());
+            if (page != null) {
+                return showsRequestInfo()
+                        ? page.render(buildRequestInfoSection(errorContext, model))
+                        : cacheableBody(errorContext, page.body());
+            }
+        }
+        HtmlErrorPage key = error(response.code(), response.reason(), localized);
+        String html = html(key, errorContext, response, model, isProduction);
+        // without request information a production page is as deterministic as a pre-rendered one
+        return isProduction && !showsRequestInfo() ? cacheableBody(errorContext, new CompressedBody(html)) : html;
+    }
 
-        String sourceCodeHtml = isProduction ? "" : buildSourceCodeSection(extractCodeSnippets(errorContext));
-        String stackTraceHtml = isProduction ? "" : buildStackTraceSection(errorContext);
-        String requestInfoHtml = buildRequestInfoSection(errorContext);
-        String jsonResponseHtml = isProduction ? "" : buildJsonResponseSection(errorContext, response);
-
-        return MessageFormat.format("""
-                <!doctype html>
-                <html lang="en">
-                <head>
-                    <title>{0} — {1}</title>
-                    <meta charset="utf-8">
-                    <meta name="viewport" content="initial-scale=1, width=device-width">
-                    <meta name="robots" content="noindex, nofollow">
-                    <style>{2}</style>
-                    <script>{3}</script>
-                </head>
-                <body>
-                    <main>
-                        <header>{4}</header>
-                        <article>{5}</article>
-                        {6}
-                        {7}
-                        {8}
-                        {9}
-                    </main>
-                </body>
-                </html>
-                """,
-                htmlErrorPage.httpStatusCode(),
-                errorTitle,
-                CSS,
-                JAVASCRIPT,
-                header,
-                article(htmlErrorPage),
-                sourceCodeHtml,
-                stackTraceHtml,
-                requestInfoHtml,
-                jsonResponseHtml
-        );
+    private boolean showsRequestInfo() {
+        return requestInfo == null || requestInfo.isBlank()
+                ? !"production".equalsIgnoreCase(environment)
+                : Boolean.parseBoolean(requestInfo.trim());
     }
 
-    private HtmlErrorPage error(ErrorContext errorContext, HttpResponse<?> response) {
-        int httpStatusCode = response.code();
-        Locale locale = localeResolver.resolveOrDefault(errorContext.getRequest());
+    /**
+     * Streams the development page of an error whose stack trace has at least
+     * {@code error.page.streaming.min-lines} lines, which would otherwise be built as one string. The minimal body
+     * is returned as a placeholder for {@link ErrorStreamingFilter} to replace, so callers without the filter still
+     * get a page. The permit only covers building the model and the stack trace; its slot is released when this
+     * returns, whether or not the page is ever sent, and the render is recorded once the page was sent.
+     *
+     * @return the page, or {@code null} to render a string
+     */
+    private StreamingHtmlErrorPage stream(ErrorRenderGuard.Permit permit, ErrorContext errorContext,
+                                          HttpResponse<?> response, long start) {
+        if (!streaming || permit.degraded() || errorContext.getRequest() == null
+                || "production".equalsIgnoreCase(environment) || template.indexOf(Slot.SECTIONS) < 0) {
+            return null;
+        }
+        ErrorModel model = errorModels.of(errorContext, response);
+        if (model.rootCause() == null) {
+            return null;
+        }
+        StackTraceModel stackTrace = errorModels.stackTrace(model);
+        if (stackTrace.lines().size() < streamingMinLines) {
+            return null;
+        }
+        HtmlErrorPage key = error(response.code(), response.reason(), messages.messages(errorContext.getRequest()));
+        return new StreamingHtmlErrorPage(new PageFragments(key, errorContext, response, model, stackTrace),
+                ByteBufAllocator.DEFAULT, streamingChunkBytes, offload.executor(),
+                bytes -> metrics.record(ErrorRenderMetrics.Format.HTML, permit, response.code(),
+                        System.nanoTime() - start, bytes));
+    }
 
-        String errorBold = getMessage(httpStatusCode + ".error.bold", DEFAULT_ERROR_BOLD.get(httpStatusCode), locale);
-        String error = getMessage(httpStatusCode + ".error", DEFAULT_ERROR.get(httpStatusCode), locale);
-        String httpStatusReason = htmlSanitizer.sanitize(response.reason());
+    /**
+     * Renders the production page for a status without any request, leaving
+     * {@link PrerenderedErrorPages#SECTIONS_MARKER} where the request information goes.
+     *
+     * @param httpStatusCode the status code
+     * @param reason         the status reason
+     * @param locale         the locale of the messages
+     * @return the page
+     */
+    String prerender(int httpStatusCode, String reason, Locale locale) {
+        return template.render(values(error(httpStatusCode, reason, messages.messages(locale)),
+                PrerenderedErrorPages.SECTIONS_MARKER));
+    }
 
-        return new HtmlErrorPage(locale, httpStatusCode, httpStatusReason, error, errorBold);
+    private String staticBody(ErrorContext errorContext, CompressedBody body) {
+        if (errorContext.getRequest() != null) {
+            errorContext.getRequest().setAttribute(CompressedBody.ATTRIBUTE, body);
+        }
+        return body.text();
     }
 
-    private String getMessage(String code, String defaultMessage, Locale locale) {
-        return defaultMessage != null
-                ? messageSource.getMessage(code, defaultMessage, locale)
-                : messageSource.getMessage(code, locale).orElse(null);
+    /**
+     * A static body that only depends on the status and locale, which {@link ErrorCacheFilter} may let clients
+     * cache.
+     */
+    private String cacheableBody(ErrorContext errorContext, CompressedBody body) {
+        if (errorContext.getRequest() != null) {
+            errorContext.getRequest().setAttribute(ErrorCacheFilter.ATTRIBUTE, body);
+        }
+        return staticBody(errorContext, body);
     }
 
-    private List<CodeSnippet> extractCodeSnippets(ErrorContext errorContext) {
-        List<CodeSnippet> snippets = new ArrayList<>();
-        if (errorContext == null) return snippets;
+    /**
+     * The page of a status without any details. Pages with the standard reason phrase are cached per status; a
+     * custom reason gets its own page, so it is never served for another error.
+     */
+    private CompressedBody minimalBody(HttpResponse<?> response) {
+        String reason = response.reason();
+        if (!reason.equals(response.getStatus().getReason())) {
+            return minimalBody(response.code(), reason);
+        }
+        return minimalBodies.computeIfAbsent(response.code(), code -> minimalBody(code, reason));
+    }
 
-        Optional<Throwable> exception = errorContext.getRootCause();
-        if (exception.isEmpty()) return snippets;
+    private CompressedBody minimalBody(int code, String reason) {
+        String escaped = HtmlEscaper.escape(reason);
+        String[] values = ErrorPageTemplate.newValues();
+        values[Slot.STATUS.ordinal()] = String.valueOf(code);
+        values[Slot.TITLE.ordinal()] = escaped;
+        values[Slot.HEADER.ordinal()] = "<h1>" + escaped + "</h1><h2>" + code + "</h2>";
+        return new CompressedBody(template.render(values));
+    }
+
+    private String html(@NonNull HtmlErrorPage htmlErrorPage, ErrorContext errorContext, HttpResponse<?> response,
+                        ErrorModel model, boolean isProduction) {
+        String[] values = values(htmlErrorPage, null);
+        long budget = limits.maxBodyBytes() - template.staticBytes() - OMITTED_MARKER_RESERVE;
+        for (String value : values) {
+            if (value != null) {
+                budget -= ErrorLimits.utf8Length(value);
+            }
+        }
+
+        List<Supplier<String>> parts = List.of(
+                () -> isProduction || model.rootCause() == null ? "" : buildExceptionSections(model),
+                () -> buildRequestInfoSection(errorContext, model),
+                () -> isProduction ? "" : buildJsonResponseSection(errorContext, response));
+        StringBuilder sections = new StringBuilder();
+        long omitted = 0;
+        for (Supplier<String> part : parts) {
+            String html = part.get();
+            int bytes = ErrorLimits.utf8Length(html);
+            if (bytes <= budget) {
+                sections.append(html);
+                budget -= bytes;
+            } else {
+                omitted += bytes;
+            }
+        }
+        if (omitted > 0) {
+            sections.append("<div class=\"error-section\">").append(ErrorLimits.more(omitted, "bytes")).append("</div>");
+        }
+
+        values[Slot.SECTIONS.ordinal()] = sections.toString();
+        return template.render(values);
+    }
+
+    private String[] values(@NonNull HtmlErrorPage htmlErrorPage, String sections) {
+        String[] values = ErrorPageTemplate.newValues();
+        values[Slot.STATUS.ordinal()] = String.valueOf(htmlErrorPage.httpStatusCode());
+        values[Slot.TITLE.ordinal()] = htmlErrorPage.errorTitle();
+        values[Slot.HEADER.ordinal()] = "<h1>" + htmlErrorPage.errorTitle() + "</h1><h2>" + htmlErrorPage.httpStatusCode() + "</h2>";
+        values[Slot.ARTICLE.ordinal()] = article(htmlErrorPage);
+        values[Slot.SECTIONS.ordinal()] = sections;
+        return values;
+    }
 
-        String stackTraceText = getStackTraceAsString(exception.get());
+    private HtmlErrorPage error(int httpStatusCode, String reason, ErrorMessageTable.Messages localized) {
+        String httpStatusReason = HtmlEscaper.escape(reason);
+        String errorTitle = localized.title(httpStatusCode);
+        if (errorTitle == null) {
+            errorTitle = httpStatusReason;
+        }
+        return new HtmlErrorPage(localized.locale(), httpStatusCode, httpStatusReason, errorTitle,
+                localized.description(httpStatusCode), localized.bold(httpStatusCode));
+    }
+
+    /**
+     * The code snippets are rendered on every error, reading through {@link SourceCache}, so edited sources show up;
+     * only the stack trace views are cached.
+     */
+    private String buildExceptionSections(ErrorModel model) {
+        StackTraceModel stackTrace = errorModels.stackTrace(model);
+        return buildSourceCodeSection(extractCodeSnippets(stackTrace))
+                + fragmentCache.get(model.rootCauseKey(ErrorFragmentCache.Fragment.HTML_EXCEPTION),
+                        () -> buildStackTraceSection(stackTrace));
+    }
+
+    private List<CodeSnippet> extractCodeSnippets(StackTraceModel stackTrace) {
+        List<CodeSnippet> snippets = new ArrayList<>();
         Set<String> processedFiles = new HashSet<>();
 
-        for (String line : stackTraceText.split("\n")) {
-            if (shouldFilterLine(line)) continue;
-
-            Optional<StackTraceElement> maybeElement = parseStackTraceLine(line.trim());
-            if (maybeElement.isPresent()) {
-                StackTraceElement element = maybeElement.get();
-                String fileLineKey = element.getClassName() + ":" + element.getLineNumber();
-
-                if (!processedFiles.contains(fileLineKey)) {
-                    String codeSnippet = getCodeFromElement(element);
-                    if (codeSnippet != null && !codeSnippet.isEmpty()) {
-                        snippets.add(new CodeSnippet(
-                                element.getClassName(),
-                                getFileNameFromClass(element.getClassName()),
-                                element.getLineNumber(),
-                                codeSnippet
-                        ));
-                        processedFiles.add(fileLineKey);
-                    }
-                }
+        for (StackTraceModel.Line line : stackTrace.lines()) {
+            CodeSnippet snippet = codeSnippet(line, processedFiles);
+            if (snippet != null) {
+                snippets.add(snippet);
             }
         }
 
         return snippets;
     }
 
-    private String getStackTraceAsString(Throwable exception) {
-        StringWriter stringWriter = new StringWriter();
-        exception.printStackTrace(new PrintWriter(stringWriter));
-        return stringWriter.toString();
-    }
+    private CodeSnippet codeSnippet(StackTraceModel.Line line, Set<String> processedFiles) {
+        StackTraceElement element = line.element();
+        if (element == null || line.filtered() || element.getFileName() == null) return null;
 
-    private boolean shouldFilterLine(String line) {
-        return line.contains(filterPrefixMicronaut) ||
-                line.contains(filterPrefixNetty) ||
-                line.contains(filterUnknownSource);
+        String fileLineKey = element.getClassName() + ":" + element.getLineNumber();
+        if (processedFiles.contains(fileLineKey)) return null;
+
+        String codeSnippet = getCodeFromElement(element);
+        if (codeSnippet == null || codeSnippet.isEmpty()) return null;
+
+        processedFiles.add(fileLineKey);
+        return new CodeSnippet(
+                element.getClassName(),
+                getFileNameFromClass(element.getClassName()),
+                element.getLineNumber(),
+                codeSnippet
+        );
     }
 
     private String getFileNameFromClass(String className) {
@@ -540,24 +374,25 @@ public class DefaultHtmlProvider implements HtmlErrorResponseBodyProvider {
         if (codeSnippets.isEmpty()) return "";
 
         StringBuilder sb = new StringBuilder();
-        sb.append("<div class=\"source-code-section\">")
-                .append("<div class=\"code-container\">")
-                .append("<div class=\"stacktrace-header collapsible\">Source Code <span class=\"toggle-icon\">▼</span></div>")
-                .append("<div class=\"code-content\">");
-
+        sb.append(SOURCE_CODE_OPEN);
         for (CodeSnippet snippet : codeSnippets) {
-            sb.append("<div class=\"code-snippet\">")
-                    .append("<div class=\"file-name\">").append(snippet.fileName()).append("</div>")
-                    .append(snippet.codeHtml())
-                    .append("</div>");
+            appendCodeSnippet(sb, snippet);
         }
-
-        sb.append("</div></div></div>");
+        sb.append(SOURCE_CODE_CLOSE);
         return sb.toString();
     }
 
-    private String buildRequestInfoSection(ErrorContext errorContext) {
-        if (errorContext == null || errorContext.getRequest() == null) return "";
+    private static StringBuilder appendCodeSnippet(StringBuilder sb, CodeSnippet snippet) {
+        sb.append("<div class=\"code-snippet\">")
+                .append("<div class=\"file-name\">");
+        return HtmlEscaper.escape(sb, snippet.fileName())
+                .append("</div>")
+                .append(snippet.codeHtml())
+                .append("</div>");
+    }
+
+    private String buildRequestInfoSection(ErrorContext errorContext, ErrorModel model) {
+        if (!showsRequestInfo() || errorContext == null || errorContext.getRequest() == null) return "";
 
         HttpRequest<?> request = errorContext.getRequest();
         StringBuilder sb = new StringBuilder();
@@ -566,43 +401,86 @@ public class DefaultHtmlProvider implements HtmlErrorResponseBodyProvider {
                 .append("<div class=\"request-container\">")
                 .append("<div class=\"section-header\">Request Information</div>")
                 .append("<div class=\"request-info\">")
-                .append("<div class=\"request-info-item\"><strong>Method:</strong> ").append(request.getMethod()).append("</div>")
-                .append("<div class=\"request-info-item\"><strong>URL:</strong> ").append(request.getUri().toString()).append("</div>")
+                .append("<div class=\"request-info-item\"><strong>Method:</strong> ").append(model.method()).append("</div>")
+                .append("<div class=\"request-info-item\"><strong>URL:</strong> ");
+        HtmlEscaper.escape(sb, model.uri())
+                .append("</div>")
+                .append("<div class=\"request-info-item\"><strong>Time:</strong> ").append(model.timestamp()).append("</div>")
+                .append("<div class=\"request-info-item\"><strong>Error ID:</strong> ").append(model.id()).append("</div>")
                 .append("<div class=\"stacktrace-header collapsible\">Headers <span class=\"toggle-icon\">▼</span></div>")
                 .append("<div class=\"stacktrace-content\">");
 
-        request.getHeaders().forEach((name, values) -> {
-            sb.append("<div class=\"request-info-item\">")
-                    .append(name).append(": ").append(String.join(", ", values))
-                    .append("</div>");
-        });
+        HttpHeaders headers = request.getHeaders();
+        long remaining = limits.maxHeaderBytes();
+        int omitted = 0;
+        for (String name : headers.names()) {
+            if (remaining <= 0) {
+                omitted++;
+                continue;
+            }
+            sb.append("<div class=\"request-info-item\">");
+            HtmlEscaper.escape(sb, name).append(": ");
+            remaining -= ErrorLimits.utf8Length(name) + 2;
+            List<String> values = headers.getAll(name);
+            for (int i = 0; i < values.size() && remaining > 0; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                    remaining -= 2;
+                }
+                String value = values.get(i);
+                int bytes = ErrorLimits.utf8Length(value);
+                if (bytes > remaining) {
+                    CharSequence shown = value.subSequence(0, ErrorLimits.utf8Prefix(value, remaining));
+                    HtmlEscaper.escape(sb, shown)
+                            .append(ErrorLimits.more(bytes - ErrorLimits.utf8Length(shown), "bytes"));
+                    remaining = 0;
+                } else {
+                    HtmlEscaper.escape(sb, value);
+                    remaining -= bytes;
+                }
+            }
+            sb.append("</div>");
+        }
+        if (omitted > 0) {
+            sb.append("<div class=\"request-info-item\">").append(ErrorLimits.more(omitted, "headers")).append("</div>");
+        }
 
         sb.append("</div></div></div></div>");
         return sb.toString();
     }
 
-    private String buildStackTraceSection(ErrorContext errorContext) {
-        if (errorContext == null) return "";
-        Optional<Throwable> exception = errorContext.getRootCause();
-        if (exception.isEmpty()) return "";
+    private String buildStackTraceSection(StackTraceModel stackTrace) {
+        return EXCEPTION_SECTION_OPEN +
+                createStackTraceContainer(stackTrace, false) +
+                createStackTraceContainer(stackTrace, true) +
+                EXCEPTION_SECTION_CLOSE;
+    }
+
+    private String createStackTraceContainer(StackTraceModel stackTrace, boolean showFullStackTrace) {
+        StringBuilder sb = new StringBuilder();
+        appendStackTraceHeader(sb, stackTrace.throwable(), showFullStackTrace);
+
+        for (StackTraceModel.Line line : stackTrace.lines()) {
+            if (!showFullStackTrace && line.filtered()) continue;
 
-        return "<div class=\"exception-section\">" +
-                createStackTraceContainer(exception.get(), false) +
-                createStackTraceContainer(exception.get(), true) +
-                "</div>";
+            appendStackLine(sb, line);
+        }
+
+        sb.append(STACK_TRACE_CLOSE);
+        return sb.toString();
     }
 
-    private String createStackTraceContainer(Throwable exception, boolean showFullStackTrace) {
-        String exceptionInfo = exception.getClass().getName() +
-                (exception.getMessage() != null ? ": " + exception.getMessage() : "");
+    private StringBuilder appendStackTraceHeader(StringBuilder sb, Throwable exception, boolean showFullStackTrace) {
         String containerId = showFullStackTrace ? "full-stack-trace" : "filtered-stack-trace";
         String initialStyle = showFullStackTrace ? "display: none;" : "";
 
-        StringBuilder sb = new StringBuilder();
         sb.append("<div id=\"").append(containerId).append("\" class=\"stacktrace-container\" style=\"")
                 .append(initialStyle).append("\">")
                 .append("<div class=\"stacktrace-header collapsible\">")
-                .append("Stack Trace: ").append(exceptionInfo);
+                .append("Stack Trace: ").append(exception.getClass().getName());
+        if (exception.getMessage() != null) {
+            HtmlEscaper.escape(sb.append(": "), limits.truncate(exception.getMessage()));
+        }
 
         if (!showFullStackTrace) {
             sb.append("<div>")
@@ -614,22 +492,16 @@ public class DefaultHtmlProvider implements HtmlErrorResponseBodyProvider {
                     .append("</div>");
         }
 
-        sb.append("<span class=\"toggle-icon\">▼</span>")
+        return sb.append("<span class=\"toggle-icon\">▼</span>")
                 .append("<button class=\"button copy-button\">Copy</button>")
                 .append("</div>")
                 .append("<div class=\"stacktrace-content\">");
+    }
 
-        String stackTraceText = getStackTraceAsString(exception);
-        for (String line : stackTraceText.split("\n")) {
-            if (!showFullStackTrace && shouldFilterLine(line)) continue;
-
-            sb.append("<div class=\"stack-line\">")
-                    .append(htmlSanitizer.sanitize(line))
-                    .append("</div>");
-        }
-
-        sb.append("</div></div>");
-        return sb.toString();
+    private static StringBuilder appendStackLine(StringBuilder sb, StackTraceModel.Line line) {
+        sb.append("<div class=\"stack-line\">");
+        return HtmlEscaper.escape(sb, line.text())
+                .append("</div>");
     }
 
     private String article(@NonNull HtmlErrorPage htmlErrorPage) {
@@ -647,99 +519,237 @@ public class DefaultHtmlProvider implements HtmlErrorResponseBodyProvider {
         return sb.toString();
     }
 
-    private Optional<StackTraceElement> parseStackTraceLine(String line) {
-        try {
-            if (!line.startsWith("at ")) return Optional.empty();
-            line = line.substring(3);
+    private String getCodeFromElement(StackTraceElement element) {
+        int lineNumber = element.getLineNumber();
+        if (lineNumber < 0) return null;
 
-            int openParen = line.indexOf('(');
-            int closeParen = line.indexOf(')');
-            if (openParen == -1 || closeParen == -1) return Optional.empty();
+        Path path = sourceLocator.locate(element);
+        if (path == null) return null;
+        return readCodeSnippet(path, lineNumber);
+    }
 
-            String methodInfo = line.substring(0, openParen);
-            String fileInfo = line.substring(openParen + 1, closeParen);
+    private String readCodeSnippet(Path path, int lineNumber) {
+        int startLine = Math.max(1, lineNumber - 3);
+        List<String> lines = sourceCache.lines(path, startLine, lineNumber + 2);
+        if (lines == null) return null;
+
+        StringBuilder codeHtml = new StringBuilder();
+        int currentLine = startLine;
+        for (String line : lines) {
+            String cssClass = currentLine == lineNumber ? "highlighted-line" : "code-line";
+            codeHtml.append("<div class=\"").append(cssClass).append("\">")
+                    .append("<span class=\"line-number\">").append(currentLine).append("</span> ");
+            HtmlEscaper.escape(codeHtml, limits.truncate(line))
+                    .append("</div>");
+            currentLine++;
+        }
+        return codeHtml.toString();
+    }
 
-            if (!fileInfo.contains(":")) return Optional.empty();
+    private String buildJsonResponseSection(ErrorContext errorContext, HttpResponse<?> response) {
+        String jsonString = jsonResponse(errorContext, response);
+        if (jsonString == null) return "";
 
-            String[] parts = fileInfo.split(":");
-            String fileName = parts[0];
-            int lineNumber = Integer.parseInt(parts[1]);
+        StringBuilder sb = new StringBuilder(jsonString.length() + 256);
+        sb.append(JSON_SECTION_OPEN);
+        HtmlEscaper.escape(sb, jsonString)
+                .append(JSON_SECTION_CLOSE);
+        return sb.toString();
+    }
 
-            int lastDot = methodInfo.lastIndexOf('.');
-            String className = methodInfo.substring(0, lastDot);
+    private String jsonResponse(ErrorContext errorContext, HttpResponse<?> response) {
+        if (errorContext == null) return null;
 
-            return Optional.of(new StackTraceElement(className, "", fileName, lineNumber));
-        } catch (Exception e) {
-            return Optional.empty();
+        try {
+            JsonError jsonBody = jsonErrorResponseBodyProvider.body(errorContext, response);
+            return objectMapper.writeValueAsString(jsonBody);
+        } catch (Exception ignored) {
+            return null;
         }
     }
 
-    private String getCodeFromElement(StackTraceElement element) {
-        try {
-            int lineNumber = element.getLineNumber();
-            if (lineNumber < 0) return null;
+    /**
+     * Writes a development page for {@link StreamingHtmlErrorPage} with the markup of {@link #html}: the head and
+     * shell, one fragment per code snippet and stack line, the request information, the JSON response in slices,
+     * then the rest of the shell. Content counts against the same body budget as the sections of a page built as
+     * a string, but fragment by fragment: the first one that does not fit is omitted along with everything after it.
+     */
+    private final class PageFragments implements StreamingHtmlErrorPage.Fragments {
+        private final String[] values;
+        private final ErrorContext errorContext;
+        private final HttpResponse<?> response;
+        private final ErrorModel model;
+        private final StackTraceModel stackTrace;
+        private final int sections = template.indexOf(Slot.SECTIONS);
+        private final Set<String> processedFiles = new HashSet<>();
+        private long budget;
+        private long omitted;
+        private Part part = Part.HEAD;
+        private int index;
+        private boolean open;
+        private String json;
+
+        PageFragments(HtmlErrorPage htmlErrorPage, ErrorContext errorContext, HttpResponse<?> response,
+                      ErrorModel model, StackTraceModel stackTrace) {
+            this.values = values(htmlErrorPage, null);
+            this.errorContext = errorContext;
+            this.response = response;
+            this.model = model;
+            this.stackTrace = stackTrace;
+            this.budget = limits.maxBodyBytes() - template.staticBytes() - OMITTED_MARKER_RESERVE;
+            for (String value : values) {
+                if (value != null) {
+                    budget -= ErrorLimits.utf8Length(value);
+                }
+            }
+        }
 
-            Path path = getPathFromClass(element.getClassName());
-            if (!Files.exists(path)) return null;
+        @Override
+        public boolean next(StreamingHtmlErrorPage.Chunk chunk) {
+            switch (part) {
+                case HEAD -> head(chunk);
+                case SOURCE -> source(chunk);
+                case FILTERED -> stackTrace(chunk, false);
+                case FULL -> stackTrace(chunk, true);
+                case REQUEST -> {
+                    content(chunk, buildRequestInfoSection(errorContext, model));
+                    next(Part.JSON);
+                }
+                case JSON -> json(chunk);
+                case TAIL -> tail(chunk);
+                case DONE -> {
+                    return false;
+                }
+            }
+            return true;
+        }
 
-            return readCodeSnippet(path, lineNumber);
-        } catch (Exception ignored) {
-            return null;
+        private void head(StreamingHtmlErrorPage.Chunk chunk) {
+            for (int i = 0; i < sections; i++) {
+                chunk.bytes(template.bytes(i));
+                String value = values[template.slot(i).ordinal()];
+                if (value != null) {
+                    chunk.text(value);
+                }
+            }
+            chunk.bytes(template.bytes(sections));
+            chunk.flush();
+            next(Part.SOURCE);
         }
-    }
 
-    private String readCodeSnippet(Path path, int lineNumber) throws IOException {
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
-            StringBuilder codeHtml = new StringBuilder();
-            String line;
-            int currentLine = 1;
-            int startLine = Math.max(1, lineNumber - 3);
-            int endLine = lineNumber + 2;
+        private void source(StreamingHtmlErrorPage.Chunk chunk) {
+            List<StackTraceModel.Line> lines = stackTrace.lines();
+            while (index < lines.size()) {
+                CodeSnippet snippet = codeSnippet(lines.get(index++), processedFiles);
+                if (snippet != null) {
+                    if (!open) {
+                        chunk.text(SOURCE_CODE_OPEN);
+                        open = true;
+                    }
+                    content(chunk, appendCodeSnippet(chunk.builder(), snippet));
+                    return;
+                }
+            }
+            if (open) {
+                chunk.text(SOURCE_CODE_CLOSE);
+            }
+            next(Part.FILTERED);
+        }
 
-            while ((line = reader.readLine()) != null) {
-                if (currentLine >= startLine && currentLine <= endLine) {
-                    String cssClass = currentLine == lineNumber ? "highlighted-line" : "code-line";
-                    codeHtml.append("<div class=\"").append(cssClass).append("\">")
-                            .append("<span class=\"line-number\">").append(currentLine).append("</span> ")
-                            .append(line)
-                            .append("</div>");
+        private void stackTrace(StreamingHtmlErrorPage.Chunk chunk, boolean showFullStackTrace) {
+            if (!open) {
+                StringBuilder sb = chunk.builder();
+                if (!showFullStackTrace) {
+                    sb.append(EXCEPTION_SECTION_OPEN);
+                }
+                chunk.text(appendStackTraceHeader(sb, stackTrace.throwable(), showFullStackTrace));
+                open = true;
+                return;
+            }
+            List<StackTraceModel.Line> lines = stackTrace.lines();
+            while (index < lines.size()) {
+                StackTraceModel.Line line = lines.get(index++);
+                if (showFullStackTrace || !line.filtered()) {
+                    content(chunk, appendStackLine(chunk.builder(), line));
+                    return;
                 }
-                if (currentLine > endLine) break;
-                currentLine++;
             }
-            return codeHtml.toString();
+            if (showFullStackTrace) {
+                chunk.text(STACK_TRACE_CLOSE + EXCEPTION_SECTION_CLOSE);
+                next(Part.REQUEST);
+            } else {
+                chunk.text(STACK_TRACE_CLOSE);
+                next(Part.FULL);
+            }
         }
-    }
 
-    private Path getPathFromClass(String className) {
-        String relativePath = className.replace('.', '/') + ".java";
-        return Paths.get("src/main/java", relativePath);
-    }
+        private void json(StreamingHtmlErrorPage.Chunk chunk) {
+            if (!open) {
+                json = jsonResponse(errorContext, response);
+                if (json == null) {
+                    next(Part.TAIL);
+                    return;
+                }
+                chunk.text(JSON_SECTION_OPEN);
+                open = true;
+                return;
+            }
+            if (index < json.length()) {
+                int end = Math.min(json.length(), index + JSON_SLICE_CHARS);
+                if (end < json.length() && Character.isHighSurrogate(json.charAt(end - 1))) {
+                    end--;
+                }
+                content(chunk, HtmlEscaper.escape(chunk.builder(), json.subSequence(index, end)));
+                index = end;
+                return;
+            }
+            json = null;
+            chunk.text(JSON_SECTION_CLOSE);
+            next(Part.TAIL);
+        }
 
-    private String buildJsonResponseSection(ErrorContext errorContext, HttpResponse<?> response) {
-        if (errorContext == null) return "";
+        private void tail(StreamingHtmlErrorPage.Chunk chunk) {
+            if (omitted > 0) {
+                chunk.text(chunk.builder().append("<div class=\"error-section\">")
+                        .append(ErrorLimits.more(omitted, "bytes")).append("</div>"));
+            }
+            for (int i = sections + 1; i <= template.slotCount(); i++) {
+                chunk.bytes(template.bytes(i));
+                String value = i < template.slotCount() ? values[template.slot(i).ordinal()] : null;
+                if (value != null) {
+                    chunk.text(value);
+                }
+            }
+            next(Part.DONE);
+        }
 
-        try {
-            JsonError jsonBody = jsonErrorResponseBodyProvider.body(errorContext, response);
-            String jsonString = objectMapper.writeValueAsString(jsonBody);
-
-            return "<div class=\"json-response-section\">" +
-                    "<div class=\"stacktrace-header collapsible\">JSON Response <span class=\"toggle-icon\">▼</span></div>" +
-                    "<div class=\"stacktrace-content\">" +
-                    "<pre style=\"white-space: pre-wrap; overflow-x: auto;\">" +
-                    htmlSanitizer.sanitize(jsonString) +
-                    "</pre>" +
-                    "</div>" +
-                    "</div>";
-        } catch (Exception ignored) {
-            return "";
+        private void content(StreamingHtmlErrorPage.Chunk chunk, CharSequence html) {
+            int bytes = ErrorLimits.utf8Length(html);
+            if (bytes <= budget) {
+                chunk.text(html);
+                budget -= bytes;
+            } else {
+                omitted += bytes;
+                budget = 0;
+            }
+        }
+
+        private void next(Part next) {
+            part = next;
+            index = 0;
+            open = false;
         }
     }
 
+    private enum Part {
+        HEAD, SOURCE, FILTERED, FULL, REQUEST, JSON, TAIL, DONE
+    }
+
     private record HtmlErrorPage(
             Locale locale,
             int httpStatusCode,
             String httpStatusReason,
+            String errorTitle,
             String error,
             String errorBold
     ) {}
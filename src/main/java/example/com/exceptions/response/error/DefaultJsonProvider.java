@@ -2,10 +2,8 @@ package example.com.exceptions.response.error;
 
 import io.micronaut.context.annotation.Primary;
 import io.micronaut.context.annotation.Value;
-import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.hateoas.JsonError;
-import io.micronaut.http.hateoas.Link;
 import io.micronaut.http.server.exceptions.response.Error;
 import io.micronaut.http.server.exceptions.response.ErrorContext;
 import io.micronaut.http.server.exceptions.response.JsonErrorResponseBodyProvider;
@@ -18,109 +16,125 @@ import java.util.*;
 @Primary
 public class DefaultJsonProvider implements JsonErrorResponseBodyProvider<JsonError> {
 
-    @Value("${filter.prefix.micronaut}")
-    protected String filterPrefixMicronaut;
-
-    @Value("${filter.prefix.netty}")
-    protected String filterPrefixNetty;
-
-    @Value("${filter.unknown.source:Unknown Source}")
-    protected String filterUnknownSource;
-
     @Value("${micronaut.environment:development}")
     protected String environment;
 
+    /**
+     * Bytes reserved for the braces, the status, the {@code _links}, {@code errors} and {@code exception} wrappers
+     * and a marker in place of cut validation errors.
+     */
+    private static final int STRUCTURE_BYTES = 256;
+
+    private final ErrorModels errorModels;
+    private final ErrorFragmentCache fragmentCache;
+    private final ErrorRenderGuard renderGuard;
+    private final ErrorLimits limits;
+    private final ErrorRenderMetrics metrics;
+    private final RecentErrors recentErrors;
+
+    DefaultJsonProvider(ErrorModels errorModels, ErrorFragmentCache fragmentCache, ErrorRenderGuard renderGuard,
+                        ErrorLimits limits, ErrorRenderMetrics metrics, RecentErrors recentErrors) {
+        this.errorModels = errorModels;
+        this.fragmentCache = fragmentCache;
+        this.renderGuard = renderGuard;
+        this.limits = limits;
+        this.metrics = metrics;
+        this.recentErrors = recentErrors;
+    }
+
     @Override
     public JsonError body(ErrorContext errorContext, HttpResponse<?> response) {
-
-        ExtendedJsonError jsonError;
-
-        if (!errorContext.hasErrors()) {
-            jsonError = new ExtendedJsonError(response.reason());
-        } else if (errorContext.getErrors().size() == 1) {
-            Error error = errorContext.getErrors().getFirst();
-            jsonError = new ExtendedJsonError(error.getMessage());
-            error.getPath().ifPresent(jsonError::path);
-        } else {
-            jsonError = new ExtendedJsonError(response.reason());
-
-            List<Map<String, Object>> errors = new ArrayList<>(errorContext.getErrors().size());
-            for (Error error : errorContext.getErrors()) {
-                Map<String, Object> errorMap = new HashMap<>();
-                errorMap.put("message", error.getMessage());
-                error.getPath().ifPresent(path -> errorMap.put("path", path));
-                errors.add(errorMap);
+        if (errorModels.compact(errorContext, response)) {
+            return minimalBody(response);
+        }
+        try (ErrorRenderGuard.Permit permit = renderGuard.acquire(errorContext.getRequest())) {
+            long start = System.nanoTime();
+            JsonError body;
+            if (permit.degraded()) {
+                recentErrors.record(errorContext, response);
+                body = minimalBody(response);
+            } else {
+                body = render(errorModels.of(errorContext, response));
             }
-            jsonError.setErrors(errors);
+            // the body is serialized after this returns; ErrorJsonBodyFilter records its size
+            metrics.record(ErrorRenderMetrics.Format.JSON, permit, response.code(), System.nanoTime() - start, -1);
+            return body;
         }
+    }
 
-        HttpRequest<?> request = errorContext.getRequest();
-        if (request != null) {
-            if (jsonError.getPath().isEmpty()) {
-                jsonError.path(request.getUri().getPath());
-            }
-            jsonError.link(Link.SELF, request.getUri().toString());
-        }
-
-        jsonError.setTimestamp(new Date().toString());
-        jsonError.setStatus(response.status().getCode());
-        jsonError.setError(response.getStatus().getReason());
-
-
-        if ("development".equals(environment)) {
-            Optional<Throwable> exception = errorContext.getRootCause();
-            if (exception.isPresent()) {
-                Map<String, Object> exceptionDetails = getStringObjectMap(exception);
+    /**
+     * @return a new body with only the status and reason, as callers may still modify it
+     */
+    private JsonError minimalBody(HttpResponse<?> response) {
+        return new StreamingJsonError(response.reason(), response.code(), response.getStatus().getReason());
+    }
 
-                jsonError.setException(exceptionDetails);
+    /**
+     * Renders the body within {@code error.limits.max-body-bytes}, charging every string in UTF-8 bytes as
+     * {@link StreamingJsonError#bytes(String)} counts them. The status, reason, message, error ID and timestamp are
+     * always written; the path and the {@code self} link, then the validation errors and then the exception
+     * details are left out, or cut with a marker, once they do not fit.
+     */
+    private JsonError render(ErrorModel model) {
+        StreamingJsonError jsonError = new StreamingJsonError(model.message(), model.status(), model.error());
+        jsonError.logref(model.id());
+        jsonError.timestamp(model.timestamp());
+        long budget = limits.maxBodyBytes() - STRUCTURE_BYTES - StreamingJsonError.bytes(model.message())
+                - StreamingJsonError.bytes(model.error()) - StreamingJsonError.bytes(model.id())
+                - StreamingJsonError.bytes(model.timestamp());
+        if (model.path() != null && StreamingJsonError.bytes(model.path()) <= budget) {
+            jsonError.path(model.path());
+            budget -= StreamingJsonError.bytes(model.path());
+        }
+        if (model.uri() != null && StreamingJsonError.bytes(model.uri()) <= budget) {
+            jsonError.self(model.uri());
+            budget -= StreamingJsonError.bytes(model.uri());
+        }
+        if (model.errors().size() > 1) {
+            budget = errors(jsonError, model.errors(), budget);
+        }
+
+        if ("development".equals(environment) && model.rootCause() != null) {
+            StreamingJsonError.ExceptionDetails exception = fragmentCache.get(
+                    model.rootCauseKey(ErrorFragmentCache.Fragment.JSON_EXCEPTION),
+                    () -> StreamingJsonError.ExceptionDetails.of(errorModels.stackTrace(model), limits));
+            if (exception.size() <= budget) {
+                jsonError.exception(exception);
             }
         }
 
         return jsonError;
     }
 
-    private Map<String, Object> getStringObjectMap(Optional<Throwable> exception) {
-        Map<String, Object> exceptionDetails = new HashMap<>();
-        Throwable throwable = exception.get();
-
-        exceptionDetails.put("type", throwable.getClass().getName());
-        if (throwable.getMessage() != null) {
-            exceptionDetails.put("message", throwable.getMessage());
-        }
-
-
-        if (throwable.getStackTrace() != null && throwable.getStackTrace().length > 0) {
-            List<String> filteredStackTrace = new ArrayList<>();
-
-            for (StackTraceElement element : throwable.getStackTrace()) {
-                String elementString = element.toString();
-                if (!elementString.contains(filterPrefixMicronaut) &&
-                        !elementString.contains(filterPrefixNetty) &&
-                        !elementString.contains(filterUnknownSource)) {
-                    filteredStackTrace.add(elementString);
-                }
+    /**
+     * Keeps the validation errors that fit and replaces the rest with a marker, which {@link #STRUCTURE_BYTES}
+     * leaves room for.
+     *
+     * @return the budget left
+     */
+    private static long errors(StreamingJsonError jsonError, List<Error> errors, long budget) {
+        List<Error> kept = new ArrayList<>(errors.size());
+        for (int i = 0; i < errors.size(); i++) {
+            Error error = errors.get(i);
+            long bytes = StreamingJsonError.MEMBER_BYTES + StreamingJsonError.bytes(error.getMessage())
+                    + StreamingJsonError.bytes(error.getPath().orElse(null));
+            if (bytes > budget) {
+                String marker = ErrorLimits.more(errors.size() - i, "errors");
+                kept.add(() -> marker);
+                budget -= StreamingJsonError.MEMBER_BYTES + StreamingJsonError.bytes(marker);
+                break;
             }
-            exceptionDetails.put("stackTrace", filteredStackTrace);
-        }
-
-        List<Map<String, String>> causes = new ArrayList<>();
-        Throwable cause = throwable.getCause();
-        while (cause != null && cause != throwable) {
-            Map<String, String> causeInfo = new HashMap<>();
-            causeInfo.put("type", cause.getClass().getName());
-            if (cause.getMessage() != null) {
-                causeInfo.put("message", cause.getMessage());
-            }
-            causes.add(causeInfo);
-            cause = cause.getCause();
-        }
-
-        if (!causes.isEmpty()) {
-            exceptionDetails.put("causes", causes);
+            kept.add(error);
+            budget -= bytes;
         }
-        return exceptionDetails;
+        jsonError.errors(List.copyOf(kept));
+        return budget;
     }
 
+    /**
+     * The JSON error payload as a plain bean. The provider renders {@link StreamingJsonError} instead, which writes
+     * this same shape; the type remains for clients that read error bodies back.
+     */
     @Serdeable
     public static class ExtendedJsonError extends JsonError {
         private String timestamp;
@@ -0,0 +1,55 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
+import io.micronaut.http.annotation.PathVariable;
+
+import java.util.List;
+
+/**
+ * Serves the error page styles and scripts when they are linked instead of inlined. The names carry a
+ * content hash, so a new build never reuses a cached name and responses can be cached forever. Bodies are sent
+ * in the negotiated content coding from variants compressed once, each with its own entity tag.
+ */
+@Controller("${error.page.assets.path:/_error/assets}")
+@Requires(property = "error.page.assets.external", value = "true")
+public class ErrorAssetsController {
+
+    private static final String CACHE_FOREVER = "public, max-age=31536000, immutable";
+
+    private final ErrorPageAssets assets;
+
+    ErrorAssetsController(ErrorPageAssets assets) {
+        this.assets = assets;
+        for (ErrorPageAssets.Asset asset : List.of(assets.stylesheet(), assets.script())) {
+            for (ContentCoding coding : ContentCoding.values()) {
+                asset.body().bytes(coding);
+            }
+        }
+    }
+
+    @Get("/{name}")
+    public HttpResponse<byte[]> asset(@PathVariable String name,
+                                      @Header(HttpHeaders.ACCEPT_ENCODING) @Nullable String acceptEncoding) {
+        ErrorPageAssets.Asset asset = assets.find(name);
+        if (asset == null) {
+            return HttpResponse.notFound();
+        }
+        ContentCoding coding = ContentCoding.negotiate(acceptEncoding);
+        MutableHttpResponse<byte[]> response = HttpResponse.ok(asset.body().bytes(coding))
+                .contentType(asset.contentType())
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_FOREVER)
+                .header(HttpHeaders.ETAG, asset.etag(coding))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (coding != ContentCoding.IDENTITY) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding.token());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,113 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses dynamic error bodies with pooled {@link Deflater}s, so a page is not compressed through a freshly
+ * allocated deflater and its native buffers on every response. At most {@code error.compression.pool-size}
+ * deflaters per coding are kept; a render finding the pool empty uses a temporary one.
+ */
+@Singleton
+public class ErrorBodyCompressor {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final int level;
+    private final int minSize;
+    private final BlockingQueue<Pooled> gzipPool;
+    private final BlockingQueue<Pooled> deflatePool;
+
+    ErrorBodyCompressor(@Value("${error.compression.level:6}") int level,
+                        @Value("${error.compression.min-size:1024}") int minSize,
+                        @Value("${error.compression.pool-size:16}") int poolSize) {
+        this.level = level;
+        this.minSize = minSize;
+        this.gzipPool = new ArrayBlockingQueue<>(poolSize);
+        this.deflatePool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * @return bodies smaller than this are sent as is
+     */
+    public int minSize() {
+        return minSize;
+    }
+
+    /**
+     * @param input  the identity body
+     * @param coding {@link ContentCoding#GZIP} or {@link ContentCoding#DEFLATE}
+     * @return the encoded body
+     */
+    public byte[] compress(byte[] input, ContentCoding coding) {
+        if (coding == ContentCoding.IDENTITY) {
+            return input;
+        }
+        BlockingQueue<Pooled> pool = coding == ContentCoding.GZIP ? gzipPool : deflatePool;
+        Pooled pooled = pool.poll();
+        if (pooled == null) {
+            pooled = new Pooled(new Deflater(level, coding == ContentCoding.GZIP), new byte[8192]);
+        }
+        try {
+            return encode(input, coding, pooled.deflater(), pooled.buffer());
+        } finally {
+            pooled.deflater().reset();
+            if (!pool.offer(pooled)) {
+                pooled.deflater().end();
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        for (BlockingQueue<Pooled> pool : List.of(gzipPool, deflatePool)) {
+            Pooled pooled;
+            while ((pooled = pool.poll()) != null) {
+                pooled.deflater().end();
+            }
+        }
+    }
+
+    /**
+     * @param input    the identity body
+     * @param coding   the coding; gzip needs a deflater without zlib wrapping, deflate one with it
+     * @param deflater a reset deflater
+     * @param buffer   scratch space
+     * @return the encoded body
+     */
+    static byte[] encode(byte[] input, ContentCoding coding, Deflater deflater, byte[] buffer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 4 + 32);
+        if (coding == ContentCoding.GZIP) {
+            out.writeBytes(GZIP_HEADER);
+        }
+        deflater.setInput(input);
+        deflater.finish();
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        if (coding == ContentCoding.GZIP) {
+            CRC32 crc = new CRC32();
+            crc.update(input);
+            writeIntLE(out, (int) crc.getValue());
+            writeIntLE(out, input.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private record Pooled(Deflater deflater, byte[] buffer) {}
+}
@@ -0,0 +1,117 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Order;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpHeaders;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.ResponseFilter;
+import io.micronaut.http.annotation.ServerFilter;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lets clients and shared caches reuse error bodies that only depend on the status and locale: the production
+ * pages sent without request information, which is left out of them unless {@code error.page.request-info} is
+ * set. Those get a strong {@code ETag} per content coding, derived from the bytes sent,
+ * {@code Cache-Control: public, max-age=error.cache.max-age} and {@code Vary} on the headers that select the
+ * variant, and a request whose {@code If-None-Match} matches is answered with 304 and no body. These responses do
+ * not carry the {@value ErrorIdFilter#HEADER} header, which would otherwise be stored and sent to every client
+ * the cache serves. Other error bodies, the JSON ones included, carry request details, timestamps or error IDs and
+ * are left alone.
+ * <p>
+ * Only the statuses in {@code error.cache.statuses} are tagged. RFC 9110 has servers ignore preconditions on
+ * responses other than 2xx; browsers and caches nonetheless reuse a stored error response on a 304, which is
+ * what this relies on.
+ * <p>
+ * Ordered first, so its response filter runs last and tags the body in the coding
+ * {@link ErrorCompressionFilter} chose.
+ */
+@ServerFilter(ServerFilter.MATCH_ALL_PATTERN)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ErrorCacheFilter {
+
+    /**
+     * The request attribute holding the cacheable body, set by the provider that rendered it.
+     */
+    public static final String ATTRIBUTE = ErrorCacheFilter.class.getName();
+
+    private final Set<Integer> statuses;
+    private final String cacheControl;
+
+    ErrorCacheFilter(@Value("${error.cache.statuses:404,405,410,413,414,431,501}") List<Integer> statuses,
+                     @Value("${error.cache.max-age:300}") long maxAge) {
+        this.statuses = Set.copyOf(statuses);
+        this.cacheControl = "public, max-age=" + maxAge;
+    }
+
+    @ResponseFilter
+    public void cache(HttpRequest<?> request, MutableHttpResponse<?> response) {
+        if (!statuses.contains(response.code())) {
+            return;
+        }
+        CompressedBody body = request.getAttribute(ATTRIBUTE, CompressedBody.class).orElse(null);
+        if (body == null) {
+            return;
+        }
+        MutableHttpHeaders headers = response.getHeaders();
+        ContentCoding coding = coding(headers.get(HttpHeaders.CONTENT_ENCODING));
+        Object sent = response.body();
+        // a later filter may have replaced the page, e.g. with a compact format
+        if (coding == null || (sent != body.text() && sent != body.bytes(coding))) {
+            return;
+        }
+        String etag = body.etag(coding);
+        headers.set(HttpHeaders.ETAG, etag);
+        headers.set(HttpHeaders.CACHE_CONTROL, cacheControl);
+        // a shared cache would replay one request's error ID to every client
+        headers.remove(ErrorIdFilter.HEADER);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE);
+        if (matches(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.status(HttpStatus.NOT_MODIFIED);
+            response.body(null);
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+        }
+    }
+
+    /**
+     * @param ifNoneMatch the {@code If-None-Match} header, may be {@code null}
+     * @param etag        the current entity tag
+     * @return whether the header lists the tag, compared weakly as RFC 9110 requires for this header
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ContentCoding coding(String contentEncoding) {
+        if (contentEncoding == null) {
+            return ContentCoding.IDENTITY;
+        }
+        for (ContentCoding coding : ContentCoding.values()) {
+            if (coding.token().equalsIgnoreCase(contentEncoding.trim())) {
+                return coding;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.ResponseFilter;
+import io.micronaut.http.annotation.ServerFilter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends HTML error bodies in the coding negotiated from {@code Accept-Encoding}. Static bodies use the variant
+ * stored in their {@link CompressedBody}; dynamic ones are compressed once through the pooled
+ * {@link ErrorBodyCompressor}. Setting {@code Content-Encoding} keeps the server from compressing them again.
+ * Error responses of any other content type are left to the server.
+ */
+@ServerFilter(ServerFilter.MATCH_ALL_PATTERN)
+@Requires(property = "error.compression.enabled", notEquals = "false")
+public class ErrorCompressionFilter {
+
+    private final ErrorBodyCompressor compressor;
+
+    ErrorCompressionFilter(ErrorBodyCompressor compressor) {
+        this.compressor = compressor;
+    }
+
+    @ResponseFilter
+    public void compress(HttpRequest<?> request, MutableHttpResponse<?> response) {
+        if (response.code() < 400 || response.getHeaders().contains(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+        if (!(response.body() instanceof String text) || !isHtml(response)) {
+            return;
+        }
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ContentCoding coding = ContentCoding.negotiate(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+        if (coding == ContentCoding.IDENTITY) {
+            return;
+        }
+        CompressedBody stored = request.getAttribute(CompressedBody.ATTRIBUTE, CompressedBody.class)
+                .filter(body -> body.text() == text)
+                .orElse(null);
+        byte[] encoded;
+        if (stored != null) {
+            encoded = stored.bytes(coding);
+        } else {
+            byte[] identity = text.getBytes(StandardCharsets.UTF_8);
+            if (identity.length < compressor.minSize()) {
+                return;
+            }
+            encoded = compressor.compress(identity, coding);
+        }
+        response.body(encoded);
+        response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, coding.token());
+    }
+
+    private static boolean isHtml(MutableHttpResponse<?> response) {
+        return response.getContentType()
+                .map(type -> MediaType.TEXT_HTML.equalsIgnoreCase(type.getName()))
+                .orElse(false);
+    }
+}
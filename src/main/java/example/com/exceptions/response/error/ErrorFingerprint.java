@@ -0,0 +1,44 @@
+package example.com.exceptions.response.error;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Identifies a root cause by its exception type and a hash of the frames of its whole cause chain, so repeated
+ * occurrences of the same bug map to the same fingerprint regardless of their messages.
+ *
+ * @param type   the exception class name
+ * @param frames a 64-bit hash of the exception types and frames in the cause chain
+ */
+public record ErrorFingerprint(String type, long frames) {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    /**
+     * @param throwable the root cause
+     * @return its fingerprint
+     */
+    public static ErrorFingerprint of(Throwable throwable) {
+        long hash = SEED;
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable t = throwable; t != null && seen.add(t); t = t.getCause()) {
+            hash = mix(hash, t.getClass().getName().hashCode());
+            for (StackTraceElement element : t.getStackTrace()) {
+                hash = mix(hash, element.hashCode());
+            }
+        }
+        return new ErrorFingerprint(throwable.getClass().getName(), hash);
+    }
+
+    static long mix(long hash, int value) {
+        hash ^= value;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        return type + "@" + Long.toHexString(frames);
+    }
+}
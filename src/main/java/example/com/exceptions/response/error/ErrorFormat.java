@@ -0,0 +1,211 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.http.server.exceptions.response.Error;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compact error body formats for machine clients, written straight from the {@link ErrorModel}. Each carries the
+ * status, the reason, the message, the error ID and any validation errors, and leaves out what the default JSON
+ * body adds for people: links, the timestamp and exception details.
+ */
+public enum ErrorFormat {
+
+    /**
+     * RFC 9457 problem details, with the error ID and validation errors as extension members. Each validation error
+     * has a {@code detail} and the Micronaut property {@code path} it is reported for, such as
+     * {@code create.body.name}, which is not a JSON Pointer and so is not written as {@code pointer}.
+     */
+    PROBLEM_JSON("application/problem+json") {
+        @Override
+        public byte[] write(ErrorModel model) {
+            StringBuilder json = new StringBuilder(128);
+            json.append("{\"type\":\"about:blank\",\"title\":");
+            string(json, model.error());
+            json.append(",\"status\":").append(model.status());
+            if (model.message() != null && !model.message().equals(model.error())) {
+                json.append(",\"detail\":");
+                string(json, model.message());
+            }
+            if (model.uri() != null) {
+                json.append(",\"instance\":");
+                string(json, model.uri());
+            }
+            if (model.id() != null) {
+                json.append(",\"errorId\":");
+                string(json, model.id());
+            }
+            List<Error> errors = model.errors();
+            if (errors.size() > 1) {
+                json.append(",\"errors\":[");
+                for (int i = 0; i < errors.size(); i++) {
+                    Error error = errors.get(i);
+                    json.append(i == 0 ? "{\"detail\":" : ",{\"detail\":");
+                    string(json, error.getMessage());
+                    String path = error.getPath().orElse(null);
+                    if (path != null) {
+                        json.append(",\"path\":");
+                        string(json, path);
+                    }
+                    json.append('}');
+                }
+                json.append(']');
+            }
+            return json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+        }
+    },
+
+    /**
+     * A CBOR map with the keys {@code status}, {@code title}, {@code detail}, {@code id} and, for several
+     * validation errors, {@code errors}, each a map of {@code detail} and {@code path}.
+     */
+    CBOR("application/cbor") {
+        @Override
+        public byte[] write(ErrorModel model) {
+            List<Error> errors = model.errors();
+            CborWriter cbor = new CborWriter();
+            cbor.map(errors.size() > 1 ? 5 : 4)
+                    .text("status").integer(model.status())
+                    .text("title").text(model.error())
+                    .text("detail").text(model.message())
+                    .text("id").text(model.id());
+            if (errors.size() > 1) {
+                cbor.text("errors").array(errors.size());
+                for (Error error : errors) {
+                    cbor.map(2)
+                            .text("detail").text(error.getMessage())
+                            .text("path").text(error.getPath().orElse(null));
+                }
+            }
+            return cbor.toByteArray();
+        }
+    },
+
+    /**
+     * The status line, the message if it adds anything, one line per validation error and the error ID.
+     */
+    TEXT("text/plain") {
+        @Override
+        public byte[] write(ErrorModel model) {
+            StringBuilder text = new StringBuilder(64);
+            text.append(model.status()).append(' ').append(model.error()).append('\n');
+            if (model.errors().size() > 1) {
+                for (Error error : model.errors()) {
+                    error.getPath().ifPresent(path -> text.append(path).append(": "));
+                    text.append(error.getMessage()).append('\n');
+                }
+            } else if (model.message() != null && !model.message().equals(model.error())) {
+                text.append(model.message()).append('\n');
+            }
+            if (model.id() != null) {
+                text.append("Error-Id: ").append(model.id()).append('\n');
+            }
+            return text.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    };
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final ErrorFormat[] FORMATS = values();
+
+    private final String mediaType;
+
+    ErrorFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return the content type of the format
+     */
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param model the error
+     * @return the encoded body
+     */
+    public abstract byte[] write(ErrorModel model);
+
+    /**
+     * Picks the format the client prefers. Only a compact format listed with a higher quality than every other
+     * media range is picked, so clients asking for JSON, HTML or anything keep the default body, also when they
+     * list it with the same quality. Of several compact formats with the same quality, the first listed is picked.
+     *
+     * @param accept the {@code Accept} header, may be {@code null}
+     * @return the preferred compact format, or {@code null}
+     */
+    public static ErrorFormat negotiate(String accept) {
+        if (accept == null) {
+            return null;
+        }
+        ErrorFormat best = null;
+        double bestQuality = 0;
+        int start = 0;
+        while (start < accept.length()) {
+            int end = accept.indexOf(',', start);
+            if (end < 0) {
+                end = accept.length();
+            }
+            int parameters = accept.indexOf(';', start);
+            String range = accept.substring(start, parameters < 0 || parameters > end ? end : parameters).trim();
+            double quality = parameters < 0 || parameters > end ? 1 : quality(accept.substring(parameters, end));
+            if (quality > bestQuality) {
+                bestQuality = quality;
+                best = format(range);
+            } else if (quality == bestQuality && best != null && format(range) == null) {
+                best = null;
+            }
+            start = end + 1;
+        }
+        return best;
+    }
+
+    private static ErrorFormat format(String range) {
+        for (ErrorFormat format : FORMATS) {
+            if (format.mediaType.equalsIgnoreCase(range)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static void string(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                json.append(value, start, i);
+                switch (c) {
+                    case '"' -> json.append("\\\"");
+                    case '\\' -> json.append("\\\\");
+                    case '\n' -> json.append("\\n");
+                    case '\r' -> json.append("\\r");
+                    case '\t' -> json.append("\\t");
+                    default -> json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+                }
+                start = i + 1;
+            }
+        }
+        json.append(value, start, value.length()).append('"');
+    }
+}
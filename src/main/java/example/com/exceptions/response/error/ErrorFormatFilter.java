@@ -0,0 +1,47 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Order;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.ResponseFilter;
+import io.micronaut.http.annotation.ServerFilter;
+
+/**
+ * Replaces the body of an error the providers handled with a compact {@link ErrorFormat} when the client prefers
+ * one in {@code Accept}. Its response filter runs after {@link ErrorRenderOffloadFilter}, once deferred renders
+ * have built their model, and {@link ErrorStreamingFilter}, and before {@link ErrorCompressionFilter} could encode
+ * the body it replaces. The providers negotiate the same way through {@link ErrorModels#compact} and only return
+ * a minimal body for it to replace.
+ */
+@ServerFilter(ServerFilter.MATCH_ALL_PATTERN)
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+@Requires(property = "error.formats.enabled", notEquals = "false")
+public class ErrorFormatFilter {
+
+    private final ErrorModels errorModels;
+
+    ErrorFormatFilter(ErrorModels errorModels) {
+        this.errorModels = errorModels;
+    }
+
+    @ResponseFilter
+    public void format(HttpRequest<?> request, MutableHttpResponse<?> response) {
+        if (response.code() < 400) {
+            return;
+        }
+        ErrorFormat format = ErrorFormat.negotiate(request.getHeaders().get(HttpHeaders.ACCEPT));
+        if (format == null) {
+            return;
+        }
+        ErrorModel model = errorModels.find(request, response);
+        if (model == null) {
+            return;
+        }
+        response.body(format.write(model));
+        response.contentType(format.mediaType());
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+}
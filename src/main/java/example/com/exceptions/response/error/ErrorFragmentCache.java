@@ -0,0 +1,173 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A size-bounded cache of the request-independent parts of error responses, keyed by the
+ * {@link ErrorFingerprint} of the root cause. When one bug fires thousands of times, only the first
+ * occurrence renders stack traces; the rest only fill in the request-specific parts. Code snippets are not cached
+ * here, as the source files may change; {@link SourceCache} keeps their lines until the file is modified.
+ * <p>
+ * Holds at most {@code error.fragment-cache.max-entries} fragments and evicts the oldest first.
+ */
+@Singleton
+public class ErrorFragmentCache {
+
+    private final int maxEntries;
+    private final Map<Key, Object> fragments = new ConcurrentHashMap<>();
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ErrorFragmentCache(@Value("${error.fragment-cache.max-entries:512}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param throwable the root cause
+     * @param rules     the frame filter the fragment is rendered with
+     * @param limits    the limits the fragment is rendered with, which also cut the messages kept in the key
+     * @param fragment  which fragment is looked up
+     * @return the cache key
+     */
+    public static Key key(Throwable throwable, FrameMatcher rules, ErrorLimits limits, Fragment fragment) {
+        List<String> messages = new ArrayList<>();
+        List<ErrorFingerprint> suppressed = new ArrayList<>();
+        collect(throwable, limits, messages, suppressed, Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+        return new Key(ErrorFingerprint.of(throwable), Collections.unmodifiableList(messages), List.copyOf(suppressed),
+                rules, fragment);
+    }
+
+    /**
+     * Walks the exceptions {@link StackTraceModel} prints, in the same order and within the same depth.
+     */
+    private static void collect(Throwable throwable, ErrorLimits limits, List<String> messages,
+                                List<ErrorFingerprint> suppressed, Set<Throwable> seen, int depth) {
+        if (!seen.add(throwable) || depth > limits.maxCauseDepth()) {
+            return;
+        }
+        messages.add(limits.truncate(throwable.getLocalizedMessage()));
+        for (Throwable enclosed : throwable.getSuppressed()) {
+            suppressed.add(ErrorFingerprint.of(enclosed));
+            collect(enclosed, limits, messages, suppressed, seen, depth + 1);
+        }
+        if (throwable.getCause() != null) {
+            collect(throwable.getCause(), limits, messages, suppressed, seen, depth + 1);
+        }
+    }
+
+    /**
+     * Returns the cached fragment or renders and caches it. Concurrent misses for the same key may render
+     * more than once; the first result wins.
+     *
+     * @param key      the cache key
+     * @param renderer renders the fragment on a miss
+     * @param <T>      the fragment type, fixed per {@link Fragment}
+     * @return the fragment
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> renderer) {
+        if (maxEntries <= 0) {
+            return renderer.get();
+        }
+        Object fragment = fragments.get(key);
+        if (fragment != null) {
+            hits.increment();
+            return (T) fragment;
+        }
+        misses.increment();
+        T rendered = renderer.get();
+        if (rendered == null) {
+            return null;
+        }
+        Object previous = fragments.putIfAbsent(key, rendered);
+        if (previous != null) {
+            return (T) previous;
+        }
+        insertionOrder.add(key);
+        if (size.incrementAndGet() > maxEntries) {
+            evictOldest();
+        }
+        return rendered;
+    }
+
+    /**
+     * @return the hit, miss and eviction counts since startup
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size.get());
+    }
+
+    private void evictOldest() {
+        Key eldest = insertionOrder.poll();
+        if (eldest != null && fragments.remove(eldest) != null) {
+            size.decrementAndGet();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * The request-independent parts of error responses.
+     */
+    public enum Fragment {
+        STACK_TRACE,
+        /**
+         * The HTML stack trace views, without the code snippets.
+         */
+        HTML_EXCEPTION,
+        JSON_EXCEPTION
+    }
+
+    /**
+     * Fragments print the messages of the exceptions and the suppressed exceptions, so both are part of the key
+     * and compared in full: errors whose messages only share a hash never get each other's fragments, or the
+     * exception and its message that a cached {@link StackTraceModel} holds.
+     *
+     * @param fingerprint the root cause fingerprint
+     * @param messages    the truncated messages of every exception printed, {@code null} for those without
+     * @param suppressed  the fingerprints of the suppressed exceptions printed
+     * @param rules       the frame filter in effect, compared by identity so a reload bypasses old entries
+     * @param fragment    the fragment
+     */
+    public record Key(ErrorFingerprint fingerprint, List<String> messages, List<ErrorFingerprint> suppressed,
+                      FrameMatcher rules, Fragment fragment) {
+
+        /**
+         * @param fragment another fragment of the same root cause
+         * @return the key of that fragment
+         */
+        public Key withFragment(Fragment fragment) {
+            return fragment == this.fragment ? this : new Key(fingerprint, messages, suppressed, rules, fragment);
+        }
+    }
+
+    /**
+     * @param hits      lookups served from the cache
+     * @param misses    lookups that rendered
+     * @param evictions fragments dropped to stay within the bound
+     * @param size      fragments currently cached
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.ResponseFilter;
+import io.micronaut.http.annotation.ServerFilter;
+
+/**
+ * Returns the ID {@link RecentErrors} assigned to an error in the {@value #HEADER} header, including for minimal
+ * bodies, which are shared between errors and so cannot carry it. {@link ErrorCacheFilter} removes it again from
+ * the responses it lets shared caches store.
+ */
+@ServerFilter(ServerFilter.MATCH_ALL_PATTERN)
+public class ErrorIdFilter {
+
+    /**
+     * The response header carrying the error ID.
+     */
+    public static final String HEADER = "X-Error-Id";
+
+    @ResponseFilter
+    public void addErrorId(HttpRequest<?> request, MutableHttpResponse<?> response) {
+        if (response.code() < 400) {
+            return;
+        }
+        request.getAttribute(RecentErrors.ATTRIBUTE, String.class)
+                .ifPresent(id -> response.getHeaders().set(HEADER, id));
+    }
+}
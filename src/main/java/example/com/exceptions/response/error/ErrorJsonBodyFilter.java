@@ -0,0 +1,48 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.core.annotation.Order;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.ResponseFilter;
+import io.micronaut.http.annotation.ServerFilter;
+import io.micronaut.serde.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Serializes the JSON error body of {@link DefaultJsonProvider} in place of the server, so its size can be
+ * recorded in {@link ErrorRenderMetrics}. The server sends the bytes as they are, with the content type already set.
+ * <p>
+ * Its response filter runs after {@link ErrorFormatFilter}, which may replace the body with a compact format. If
+ * serialization fails, the body is left for the server, which reports the failure as usual.
+ */
+@ServerFilter(ServerFilter.MATCH_ALL_PATTERN)
+@Order(Ordered.LOWEST_PRECEDENCE - 3)
+public class ErrorJsonBodyFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ErrorJsonBodyFilter.class);
+
+    private final ObjectMapper objectMapper;
+    private final ErrorRenderMetrics metrics;
+
+    ErrorJsonBodyFilter(ObjectMapper objectMapper, ErrorRenderMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+    }
+
+    @ResponseFilter
+    public void serialize(MutableHttpResponse<?> response) {
+        if (!(response.body() instanceof StreamingJsonError body)) {
+            return;
+        }
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+            response.body(bytes);
+            metrics.recordBytes(ErrorRenderMetrics.Format.JSON, bytes.length);
+        } catch (IOException e) {
+            LOG.debug("Could not serialize the JSON error body, leaving it to the server", e);
+        }
+    }
+}
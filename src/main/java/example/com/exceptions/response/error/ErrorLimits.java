@@ -0,0 +1,238 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.server.exceptions.response.Error;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounds on what one error body renders, so its size and the memory spent on it stay bounded whatever the
+ * application throws. Anything cut is replaced by a "… N more" marker.
+ * <ul>
+ *     <li>{@code error.limits.max-frames}: frames listed per exception</li>
+ *     <li>{@code error.limits.max-message-length}: characters of an exception message or source line</li>
+ *     <li>{@code error.limits.max-header-bytes}: UTF-8 bytes of header text in the request information</li>
+ *     <li>{@code error.limits.max-cause-depth}: nested causes and suppressed exceptions</li>
+ *     <li>{@code error.limits.max-body-bytes}: UTF-8 bytes of a whole page; sections that do not fit are dropped</li>
+ *     <li>{@code error.limits.max-errors}: validation errors listed per error</li>
+ * </ul>
+ */
+@Singleton
+public class ErrorLimits {
+
+    /**
+     * No limits, as rendered before limits existed.
+     */
+    public static final ErrorLimits UNLIMITED = new ErrorLimits(
+            Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Integer.MAX_VALUE);
+
+    private static final int DEFAULT_MAX_ERRORS = 100;
+
+    private static final int MAX_COUNTED_CAUSES = 10_000;
+
+    private final int maxFrames;
+    private final int maxMessageLength;
+    private final int maxHeaderBytes;
+    private final int maxCauseDepth;
+    private final int maxBodyBytes;
+    private final int maxErrors;
+
+    /**
+     * @param maxFrames        frames listed per exception
+     * @param maxMessageLength characters of a message or source line
+     * @param maxHeaderBytes   UTF-8 bytes of header text in the request information
+     * @param maxCauseDepth    nesting depth of causes and suppressed exceptions
+     * @param maxBodyBytes     UTF-8 bytes of a whole body
+     * @param maxErrors        validation errors listed
+     */
+    @Inject
+    public ErrorLimits(@Value("${error.limits.max-frames:256}") int maxFrames,
+                       @Value("${error.limits.max-message-length:4096}") int maxMessageLength,
+                       @Value("${error.limits.max-header-bytes:8192}") int maxHeaderBytes,
+                       @Value("${error.limits.max-cause-depth:16}") int maxCauseDepth,
+                       @Value("${error.limits.max-body-bytes:1048576}") int maxBodyBytes,
+                       @Value("${error.limits.max-errors:100}") int maxErrors) {
+        this.maxFrames = maxFrames;
+        this.maxMessageLength = maxMessageLength;
+        this.maxHeaderBytes = maxHeaderBytes;
+        this.maxCauseDepth = maxCauseDepth;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Limits with the default number of validation errors.
+     */
+    public ErrorLimits(int maxFrames, int maxMessageLength, int maxHeaderBytes, int maxCauseDepth, int maxBodyBytes) {
+        this(maxFrames, maxMessageLength, maxHeaderBytes, maxCauseDepth, maxBodyBytes, DEFAULT_MAX_ERRORS);
+    }
+
+    public int maxFrames() {
+        return maxFrames;
+    }
+
+    public int maxMessageLength() {
+        return maxMessageLength;
+    }
+
+    public int maxHeaderBytes() {
+        return maxHeaderBytes;
+    }
+
+    public int maxCauseDepth() {
+        return maxCauseDepth;
+    }
+
+    public int maxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public int maxErrors() {
+        return maxErrors;
+    }
+
+    /**
+     * @param errors validation errors
+     * @return an immutable copy of at most {@link #maxErrors()} of them with their messages and paths truncated,
+     * followed by a marker error if any were cut
+     */
+    public List<Error> errors(List<? extends Error> errors) {
+        int kept = Math.min(errors.size(), Math.max(maxErrors, 0));
+        List<Error> copy = new ArrayList<>(kept + 1);
+        for (int i = 0; i < kept; i++) {
+            copy.add(truncate(errors.get(i)));
+        }
+        if (kept < errors.size()) {
+            String marker = more(errors.size() - kept, "errors");
+            copy.add(() -> marker);
+        }
+        return List.copyOf(copy);
+    }
+
+    private Error truncate(Error error) {
+        String message = error.getMessage();
+        String truncatedMessage = truncate(message);
+        Optional<String> path = error.getPath();
+        Optional<String> truncatedPath = path.map(this::truncate);
+        if (truncatedMessage == message && truncatedPath.equals(path)) {
+            return error;
+        }
+        Optional<String> title = error.getTitle();
+        return new Error() {
+            @Override
+            public String getMessage() {
+                return truncatedMessage;
+            }
+
+            @Override
+            public Optional<String> getPath() {
+                return truncatedPath;
+            }
+
+            @Override
+            public Optional<String> getTitle() {
+                return title;
+            }
+        };
+    }
+
+    /**
+     * @param message a message, may be {@code null}
+     * @return the message cut to {@link #maxMessageLength()} characters with a marker, the same instance if it fits
+     */
+    public String truncate(String message) {
+        if (message == null || message.length() <= maxMessageLength) {
+            return message;
+        }
+        int end = maxMessageLength;
+        if (end > 0 && Character.isHighSurrogate(message.charAt(end - 1))) {
+            end--;
+        }
+        return message.substring(0, end) + more(message.length() - end, "characters");
+    }
+
+    /**
+     * @param throwable an exception
+     * @return its class name and truncated message, as {@link Throwable#toString()} prints them
+     */
+    public String describe(Throwable throwable) {
+        String message = throwable.getLocalizedMessage();
+        String name = throwable.getClass().getName();
+        return message == null ? name : name + ": " + truncate(message);
+    }
+
+    /**
+     * @param count how many items were left out
+     * @param what  what the items are
+     * @return the marker
+     */
+    public static String more(long count, String what) {
+        return "… " + count + " more " + what;
+    }
+
+    /**
+     * @param throwable an exception
+     * @return the length of its cause chain, counting cycles once and stopping at a large bound
+     */
+    public static int causeCount(Throwable throwable) {
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        int count = 0;
+        for (Throwable t = throwable; t != null && count < MAX_COUNTED_CAUSES && seen.add(t); t = t.getCause()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param text     some text
+     * @param maxBytes the UTF-8 bytes available
+     * @return how many of its characters fit in that many UTF-8 bytes, never splitting a surrogate pair
+     */
+    public static int utf8Prefix(CharSequence text, long maxBytes) {
+        int length = text.length();
+        long bytes = 0;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            boolean pair = Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1));
+            int size = c < 0x80 ? 1 : c < 0x800 ? 2 : pair ? 4 : 3;
+            if (bytes + size > maxBytes) {
+                break;
+            }
+            bytes += size;
+            i += pair ? 2 : 1;
+        }
+        return i;
+    }
+
+    /**
+     * @param text some text
+     * @return its length in UTF-8
+     */
+    public static int utf8Length(CharSequence text) {
+        int length = text.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes++;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,165 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.MessageSource;
+import io.micronaut.context.env.Environment;
+import io.micronaut.core.type.Argument;
+import io.micronaut.core.util.LocaleResolver;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.micronaut.http.HttpStatus.*;
+
+/**
+ * The error page titles and descriptions of every 4xx and 5xx status, resolved from the {@link MessageSource}
+ * into arrays indexed by status code for each locale in {@code error.pages.locales} at startup.
+ * <p>
+ * Other locales get their table on first use, up to a bound beyond which the first configured locale answers.
+ * The table of a request is cached per {@code Accept-Language} value, which assumes locales are resolved from
+ * that header as the default resolver does.
+ */
+@Singleton
+public class ErrorMessageTable {
+
+    private static final int MIN_STATUS = 400;
+    private static final int MAX_STATUS = 600;
+    private static final int MAX_LOCALES = 64;
+    private static final int MAX_CACHED_HEADERS = 1024;
+
+    private static final Map<Integer, String> DEFAULT_ERROR_BOLD = Map.of(
+            NOT_FOUND.getCode(), "The page is not available",
+            REQUEST_ENTITY_TOO_LARGE.getCode(), "The file or data you are trying to upload exceeds the size",
+            INTERNAL_SERVER_ERROR.getCode(), "An internal server error occurred"
+    );
+
+    private static final Map<Integer, String> DEFAULT_ERROR = Map.of(
+            NOT_FOUND.getCode(), "You may have mistyped the address or the page may have moved",
+            REQUEST_ENTITY_TOO_LARGE.getCode(), "Please try again with a smaller file"
+    );
+
+    private final MessageSource messageSource;
+    private final LocaleResolver<HttpRequest<?>> localeResolver;
+    private final Map<Locale, Messages> tables = new ConcurrentHashMap<>();
+    private final Map<String, Messages> byAcceptLanguage = new ConcurrentHashMap<>();
+    private final Messages fallback;
+
+    ErrorMessageTable(MessageSource messageSource, LocaleResolver<HttpRequest<?>> localeResolver,
+                      Environment environment) {
+        this.messageSource = messageSource;
+        this.localeResolver = localeResolver;
+        List<String> locales = environment.getProperty("error.pages.locales", Argument.listOf(String.class))
+                .orElse(List.of("en"));
+        Messages first = null;
+        for (String tag : locales) {
+            Locale locale = Locale.forLanguageTag(tag.trim());
+            Messages messages = tables.computeIfAbsent(locale, this::load);
+            if (first == null) {
+                first = messages;
+            }
+        }
+        this.fallback = first != null ? first : tables.computeIfAbsent(Locale.ENGLISH, this::load);
+    }
+
+    /**
+     * @param request the failed request, may be {@code null}
+     * @return the messages in the locale of the request
+     */
+    public Messages messages(HttpRequest<?> request) {
+        if (request == null) {
+            return messages(localeResolver.resolveOrDefault(null));
+        }
+        String acceptLanguage = request.getHeaders().get(HttpHeaders.ACCEPT_LANGUAGE);
+        String key = acceptLanguage == null ? "" : acceptLanguage;
+        Messages messages = byAcceptLanguage.get(key);
+        if (messages == null) {
+            messages = messages(localeResolver.resolveOrDefault(request));
+            if (byAcceptLanguage.size() < MAX_CACHED_HEADERS) {
+                byAcceptLanguage.put(key, messages);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * @param locale a locale
+     * @return the messages in that locale
+     */
+    public Messages messages(Locale locale) {
+        Messages messages = tables.get(locale);
+        if (messages == null) {
+            messages = tables.size() < MAX_LOCALES ? tables.computeIfAbsent(locale, this::load) : fallback;
+        }
+        return messages;
+    }
+
+    private Messages load(Locale locale) {
+        int size = MAX_STATUS - MIN_STATUS;
+        String[] titles = new String[size];
+        String[] bold = new String[size];
+        String[] descriptions = new String[size];
+        for (int status = MIN_STATUS; status < MAX_STATUS; status++) {
+            int index = status - MIN_STATUS;
+            titles[index] = messageSource.getMessage(status + ".error.title", locale).orElse(null);
+            bold[index] = messageSource.getMessage(status + ".error.bold", locale)
+                    .orElse(DEFAULT_ERROR_BOLD.get(status));
+            descriptions[index] = messageSource.getMessage(status + ".error", locale)
+                    .orElse(DEFAULT_ERROR.get(status));
+        }
+        return new Messages(locale, titles, bold, descriptions);
+    }
+
+    /**
+     * The messages of one locale. Lookups outside 4xx and 5xx return {@code null}.
+     */
+    public static final class Messages {
+        private final Locale locale;
+        private final String[] titles;
+        private final String[] bold;
+        private final String[] descriptions;
+
+        private Messages(Locale locale, String[] titles, String[] bold, String[] descriptions) {
+            this.locale = locale;
+            this.titles = titles;
+            this.bold = bold;
+            this.descriptions = descriptions;
+        }
+
+        public Locale locale() {
+            return locale;
+        }
+
+        /**
+         * @param status a status code
+         * @return the page title, or {@code null} to use the reason phrase
+         */
+        public String title(int status) {
+            return lookup(titles, status);
+        }
+
+        /**
+         * @param status a status code
+         * @return the emphasized summary, or {@code null}
+         */
+        public String bold(int status) {
+            return lookup(bold, status);
+        }
+
+        /**
+         * @param status a status code
+         * @return the description, or {@code null}
+         */
+        public String description(int status) {
+            return lookup(descriptions, status);
+        }
+
+        private static String lookup(String[] table, int status) {
+            int index = status - MIN_STATUS;
+            return index >= 0 && index < table.length ? table[index] : null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the render cost of the error subsystem at {@code /error-metrics}: bodies rendered per format and
+ * status with their latency and size, the fragment and source caches, and how often renders degraded.
+ * Reading it sums the striped counters; the render path never waits on it.
+ * <p>
+ * Like other management endpoints it is sensitive unless {@code endpoints.error-metrics.sensitive} is
+ * {@code false}, which should only be set where the endpoint is not reachable from outside.
+ */
+@Endpoint(id = "error-metrics")
+public class ErrorMetricsEndpoint {
+
+    private final ErrorRenderMetrics metrics;
+    private final ErrorFragmentCache fragmentCache;
+    private final SourceCache sourceCache;
+    private final SourceLocator sourceLocator;
+    private final ErrorRenderGuard renderGuard;
+
+    ErrorMetricsEndpoint(ErrorRenderMetrics metrics, ErrorFragmentCache fragmentCache, SourceCache sourceCache,
+                         SourceLocator sourceLocator, ErrorRenderGuard renderGuard) {
+        this.metrics = metrics;
+        this.fragmentCache = fragmentCache;
+        this.sourceCache = sourceCache;
+        this.sourceLocator = sourceLocator;
+        this.renderGuard = renderGuard;
+    }
+
+    /**
+     * @return the current counters
+     */
+    @Read
+    public Map<String, Object> metrics() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("renders", metrics.snapshot());
+
+        ErrorFragmentCache.Stats fragments = fragmentCache.stats();
+        snapshot.put("fragmentCache", Map.of(
+                "hits", fragments.hits(),
+                "misses", fragments.misses(),
+                "evictions", fragments.evictions(),
+                "size", fragments.size()));
+
+        SourceCache.Stats sources = sourceCache.stats();
+        snapshot.put("sourceCache", Map.of(
+                "hits", sources.hits(),
+                "loads", sources.loads(),
+                "failures", sources.failures(),
+                "bytes", sources.bytes(),
+                "indexed", sourceLocator.size()));
+
+        snapshot.put("degraded", Map.of(
+                "active", renderGuard.isDegraded(),
+                "activations", renderGuard.activations(),
+                "full", renderGuard.count(ErrorRenderGuard.Mode.FULL),
+                "minimal", renderGuard.count(ErrorRenderGuard.Mode.DEGRADED)));
+        return snapshot;
+    }
+}
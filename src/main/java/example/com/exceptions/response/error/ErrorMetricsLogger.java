@@ -0,0 +1,32 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs one line of render metrics every {@code error.metrics.log-interval}, e.g. {@code 1m}. Only created when
+ * the interval is set and the {@link ErrorMetricsEndpoint} is enabled.
+ */
+@Singleton
+@Requires(property = "error.metrics.log-interval")
+@Requires(beans = ErrorMetricsEndpoint.class)
+public class ErrorMetricsLogger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ErrorMetricsLogger.class);
+
+    private final ErrorMetricsEndpoint endpoint;
+
+    ErrorMetricsLogger(ErrorMetricsEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    @Scheduled(fixedDelay = "${error.metrics.log-interval}")
+    void log() {
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Error render metrics: {}", endpoint.metrics());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.http.server.exceptions.response.Error;
+
+import java.util.List;
+
+/**
+ * Everything an error response reports, extracted once per request by {@link ErrorModels} and rendered by every
+ * format. The stack trace analysis of the root cause is shared through {@link ErrorFragmentCache} under
+ * {@link #rootCauseKey(ErrorFragmentCache.Fragment)}, so neither format walks the throwable again.
+ */
+public final class ErrorModel {
+
+    private final String id;
+    private final int status;
+    private final String reason;
+    private final String error;
+    private final String message;
+    private final String path;
+    private final String method;
+    private final String uri;
+    private final List<Error> errors;
+    private final String timestamp;
+    private final Throwable rootCause;
+    private final FrameMatcher rules;
+    private final ErrorLimits limits;
+    private ErrorFragmentCache.Key rootCauseKey;
+
+    ErrorModel(String id, int status, String reason, String error, String message, String path, String method, String uri,
+               List<Error> errors, String timestamp, Throwable rootCause, FrameMatcher rules, ErrorLimits limits) {
+        this.id = id;
+        this.status = status;
+        this.reason = reason;
+        this.error = error;
+        this.message = message;
+        this.path = path;
+        this.method = method;
+        this.uri = uri;
+        this.errors = errors;
+        this.timestamp = timestamp;
+        this.rootCause = rootCause;
+        this.rules = rules;
+        this.limits = limits;
+    }
+
+    /**
+     * @return the error ID reported to the client and kept by {@link RecentErrors}
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * @return the HTTP status code
+     */
+    public int status() {
+        return status;
+    }
+
+    /**
+     * @return the reason phrase of the response, which may be specific to the error
+     */
+    public String reason() {
+        return reason;
+    }
+
+    /**
+     * @return the standard reason phrase of the status
+     */
+    public String error() {
+        return error;
+    }
+
+    /**
+     * @return the message of the only validation error, or the reason phrase
+     */
+    public String message() {
+        return message;
+    }
+
+    /**
+     * @return the path of the only validation error, or the request path; {@code null} without a request
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * @return the request method, or {@code null} without a request
+     */
+    public String method() {
+        return method;
+    }
+
+    /**
+     * @return the request URI, or {@code null} without a request
+     */
+    public String uri() {
+        return uri;
+    }
+
+    /**
+     * @return every validation error, possibly empty
+     */
+    public List<Error> errors() {
+        return errors;
+    }
+
+    /**
+     * @return when the error was reported
+     */
+    public String timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the root cause, or {@code null}
+     */
+    public Throwable rootCause() {
+        return rootCause;
+    }
+
+    /**
+     * @return the frame filter rules snapshot every format of this error uses
+     */
+    public FrameMatcher rules() {
+        return rules;
+    }
+
+    /**
+     * @param fragment a fragment derived from the root cause
+     * @return its cache key; the fingerprint is computed once per model
+     * @throws IllegalStateException without a root cause
+     */
+    public ErrorFragmentCache.Key rootCauseKey(ErrorFragmentCache.Fragment fragment) {
+        if (rootCause == null) {
+            throw new IllegalStateException("No root cause");
+        }
+        ErrorFragmentCache.Key key = rootCauseKey;
+        if (key == null) {
+            key = ErrorFragmentCache.key(rootCause, rules, limits, fragment);
+            rootCauseKey = key;
+        }
+        return key.withFragment(fragment);
+    }
+}
@@ -0,0 +1,136 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+
+/**
+ * Builds the {@link ErrorModel} of a request once and keeps it as a request attribute, so the HTML page, the
+ * JSON body it embeds and any other format all render the same model.
+ */
+@Singleton
+public class ErrorModels {
+
+    /**
+     * The request attribute holding the model.
+     */
+    public static final String ATTRIBUTE = ErrorModel.class.getName();
+
+    private final FrameFilter frameFilter;
+    private final ErrorFragmentCache fragmentCache;
+    private final ErrorTimestamps timestamps;
+    private final ErrorLimits limits;
+    private final RecentErrors recentErrors;
+    private final boolean formats;
+
+    ErrorModels(FrameFilter frameFilter, ErrorFragmentCache fragmentCache, ErrorTimestamps timestamps,
+                ErrorLimits limits, RecentErrors recentErrors,
+                @Value("${error.formats.enabled:true}") boolean formats) {
+        this.frameFilter = frameFilter;
+        this.fragmentCache = fragmentCache;
+        this.timestamps = timestamps;
+        this.limits = limits;
+        this.recentErrors = recentErrors;
+        this.formats = formats;
+    }
+
+    /**
+     * @param errorContext the error
+     * @param response     the error response
+     * @return the model of the request, built and recorded in {@link RecentErrors} on first use
+     */
+    public ErrorModel of(ErrorContext errorContext, HttpResponse<?> response) {
+        HttpRequest<?> request = errorContext.getRequest();
+        if (request != null) {
+            ErrorModel model = request.getAttribute(ATTRIBUTE, ErrorModel.class).orElse(null);
+            if (model != null) {
+                return model;
+            }
+        }
+        ErrorModel model = build(errorContext, response);
+        if (request != null) {
+            request.setAttribute(ATTRIBUTE, model);
+        }
+        recentErrors.record(model.id(), model.status(), request, model.rootCause() == null
+                ? null : model.rootCauseKey(ErrorFragmentCache.Fragment.STACK_TRACE).fingerprint());
+        return model;
+    }
+
+    /**
+     * Builds the model right away when the client prefers a compact {@link ErrorFormat}, which
+     * {@link ErrorFormatFilter} writes instead of whatever body the providers return, so they need not render theirs.
+     *
+     * @param errorContext the error
+     * @param response     the error response
+     * @return whether the client gets a compact format
+     */
+    public boolean compact(ErrorContext errorContext, HttpResponse<?> response) {
+        HttpRequest<?> request = errorContext.getRequest();
+        if (!formats || request == null || ErrorFormat.negotiate(request.getHeaders().get(HttpHeaders.ACCEPT)) == null) {
+            return false;
+        }
+        of(errorContext, response);
+        return true;
+    }
+
+    /**
+     * @param request  a request
+     * @param response its response
+     * @return the model the error providers built for the request; for an error they rendered in degraded mode,
+     * a model of the status and error ID only; {@code null} if they did not handle the request
+     */
+    public ErrorModel find(HttpRequest<?> request, HttpResponse<?> response) {
+        ErrorModel model = request.getAttribute(ATTRIBUTE, ErrorModel.class).orElse(null);
+        if (model != null) {
+            return model;
+        }
+        String id = request.getAttribute(RecentErrors.ATTRIBUTE, String.class).orElse(null);
+        if (id == null) {
+            return null;
+        }
+        return new ErrorModel(id, response.code(), response.reason(), response.getStatus().getReason(),
+                response.reason(), request.getPath(), request.getMethod().toString(), request.getUri().toString(),
+                List.of(), null, null, null, limits);
+    }
+
+    /**
+     * @param model a model with a root cause
+     * @return the stack trace of the root cause, shared by every format rendering it
+     */
+    public StackTraceModel stackTrace(ErrorModel model) {
+        return fragmentCache.get(model.rootCauseKey(ErrorFragmentCache.Fragment.STACK_TRACE),
+                () -> StackTraceModel.of(model.rootCause(), model.rules(), limits));
+    }
+
+    private ErrorModel build(ErrorContext errorContext, HttpResponse<?> response) {
+        List<Error> errors = limits.errors(errorContext.getErrors());
+        String message = limits.truncate(response.reason());
+        String path = null;
+        if (errors.size() == 1) {
+            Error error = errors.getFirst();
+            message = error.getMessage();
+            path = error.getPath().orElse(null);
+        }
+
+        HttpRequest<?> request = errorContext.getRequest();
+        String method = null;
+        String uri = null;
+        if (request != null) {
+            method = request.getMethod().toString();
+            uri = request.getUri().toString();
+            if (path == null) {
+                path = request.getUri().getPath();
+            }
+        }
+
+        return new ErrorModel(recentErrors.id(request), response.code(), response.reason(), response.getStatus().getReason(), message, path,
+                method, uri, errors, timestamps.now(), errorContext.getRootCause().orElse(null),
+                frameFilter.matcher(), limits);
+    }
+}
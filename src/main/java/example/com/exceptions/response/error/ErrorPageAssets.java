@@ -0,0 +1,412 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * The error page styles and scripts, pre-encoded once and published under content-hashed names so they
+ * can be served by {@link ErrorAssetsController} with an immutable {@code Cache-Control}.
+ */
+@Singleton
+public class ErrorPageAssets {
+
+    static final String CSS = """
+            *, *::before, *::after {
+              box-sizing: border-box;
+            }
+            * {
+              margin: 0;
+            }
+            html {
+              font-size: 16px;
+              height: 100%;
+            }
+            body {
+              color: #0d0c0c;
+              font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+              font-size: clamp(1rem, 2.5vw, 1.2rem);
+              -webkit-font-smoothing: antialiased;
+              font-style: normal;
+              font-weight: 400;
+              letter-spacing: -0.0025em;
+              line-height: 1.6;
+              min-height: 100vh;
+              margin: 0;
+              padding: 0;
+              display: flex;
+              justify-content: center;
+              align-items: center;
+              background-color: #c3cfe2;
+              text-rendering: optimizeLegibility;
+              -webkit-text-size-adjust: 100%;
+            }
+            h1 {
+                font-size: 2em;
+                color: #333;
+                margin-bottom: 0.5em;
+            }
+            h2 {
+                font-size: 5.5em;
+                opacity: 0.3;
+                color: #4A90E2;
+                text-shadow: 2px 2px 5px rgba(0, 0, 0, 0.3);
+                transition: opacity 0.3s ease-in-out;
+                margin-top: -0.2em;
+                margin-bottom: 0.2em;
+            }
+            h2:hover {
+                opacity: 1;
+            }
+            a {
+              color: inherit;
+              font-weight: 700;
+              text-decoration: underline;
+              text-underline-offset: 0.1em;
+              transition: color 0.3s ease, transform 0.2s ease;
+            }
+            a:hover {
+              color: #4A90E2;
+              transform: scale(1.05);
+            }
+            b, strong {
+              font-weight: 700;
+              color: #333;
+            }
+            i, em {
+              font-style: italic;
+              color: #333;
+            }
+            main {
+              display: flex;
+              flex-direction: column;
+              gap: 1.5em;
+              padding: 2em;
+              background-color: #f5f7fa;
+              border-radius: 8px;
+              box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);
+              width: 75%;
+              margin: 2em;
+            }
+            main header {
+              width: 100%;
+              border-bottom: 2px solid #ddd;
+              padding-bottom: 1.5em;
+              margin-bottom: 1em;
+            }
+            main article {
+              width: 100%;
+              color: #d9534f;
+              font-size: 1.2rem;
+              line-height: 1.5;
+              margin-bottom: 1em;
+            }
+            .error-message {
+              background-color: transparent;
+              color: #333;
+              border: none;
+              padding: 0;
+              margin-top: 1.5em;
+              font-size: 1rem;
+              text-align: left;
+              font-family: 'Courier New', Courier, monospace;
+            }
+            .stacktrace-container, .code-container, .request-container {
+              margin-top: 1em;
+              border: 2px solid #ddd;
+              border-radius: 4px;
+              overflow: hidden;
+              margin-bottom: 1em;
+            }
+            .section-header {
+              background: #f5f5f5;
+              padding: 10px 15px;
+              border-bottom: 1px solid #ddd;
+              display: flex;
+              justify-content: space-between;
+              align-items: center;
+              font-size: 1.1em;
+              font-weight: 500;
+            }
+            .stacktrace-header {
+              background: #f5f5f5;
+              padding: 10px 15px;
+              cursor: pointer;
+              border-bottom: 1px solid #ddd;
+              display: flex;
+              justify-content: space-between;
+              align-items: center;
+            }
+            .stacktrace-content, .code-content {
+              padding: 15px;
+              background: #fff;
+              overflow-x: auto;
+              display: none;
+            }
+            .code-box {
+              background-color: #f8f8f8;
+              border-radius: 5px;
+              margin-bottom: 20px;
+              font-family: monospace;
+              white-space: pre-wrap;
+              font-size: 0.9em;
+              line-height: 1.4;
+            }
+            .stack-line {
+              padding: 2px 6px;
+              color: #333;
+            }
+            .code-snippet {
+              background-color: #f8f8f8;
+              padding: 10px;
+              border-radius: 5px;
+              margin: 10px 0;
+              border-left: 4px solid #4A90E2;
+            }
+            .code-line {
+              padding: 2px 6px;
+              white-space: pre;
+            }
+            .highlighted-line {
+              background-color: #ffecec;
+              color: #d8000c;
+              padding: 2px 6px;
+              border-left: 4px solid #d8000c;
+            }
+            .line-number {
+              color: #999;
+              margin-right: 10px;
+              display: inline-block;
+              min-width: 40px;
+              text-align: right;
+            }
+            .collapsible {
+              cursor: pointer;
+              user-select: none;
+            }
+            .request-info {
+              padding: 15px;
+              border-radius: 5px;
+              margin-top: 10px;
+              margin-bottom: 10px;
+            }
+            .request-info h3 {
+              margin-top: 0;
+              margin-bottom: 10px;
+              color: #333;
+            }
+            .request-info-item {
+              margin: 5px 0;
+              font-family: monospace;
+            }
+            .button {
+              padding: 5px 10px;
+              background: #4A90E2;
+              color: white;
+              border: none;
+              border-radius: 3px;
+              cursor: pointer;
+              font-size: 14px;
+              transition: background 0.3s ease;
+              margin-left: 10px;
+            }
+            .button:hover {
+              background: #3a7bc8;
+            }
+            .copy-button {
+              float: right;
+            }
+            .switch {
+              position: relative;
+              display: inline-block;
+              width: 50px;
+              height: 24px;
+              margin-left: 10px;
+            }
+            .switch input {
+              opacity: 0;
+              width: 0;
+              height: 0;
+            }
+            .slider {
+              position: absolute;
+              cursor: pointer;
+              top: 0;
+              left: 0;
+              right: 0;
+              bottom: 0;
+              background-color: #ccc;
+              transition: .4s;
+              border-radius: 24px;
+            }
+            .slider:before {
+              position: absolute;
+              content: "";
+              height: 16px;
+              width: 16px;
+              left: 4px;
+              bottom: 4px;
+              background-color: white;
+              transition: .4s;
+              border-radius: 50%;
+            }
+            input:checked + .slider {
+              background-color: #4A90E2;
+            }
+            input:checked + .slider:before {
+              transform: translateX(26px);
+            }
+            .filter-label {
+              font-size: 14px;
+              margin-right: 10px;
+            }
+            .filter-toggle {
+              display: flex;
+              align-items: center;
+              margin-left: auto;
+            }
+            .error-section, .source-code-section, .exception-section {
+              margin-bottom: 20px;
+            }
+            .file-name {
+              font-weight: bold;
+              margin-bottom: 5px;
+              color: #333;
+            }
+            .json-response-section {
+              margin-top: 1em;
+              margin-bottom: 1em;
+            }
+            .json-response-section pre {
+              white-space: pre-wrap;
+              word-wrap: break-word;
+              overflow-x: auto;
+              max-width: 100%;
+              background-color: #f8f8f8;
+              padding: 10px;
+              border-radius: 4px;
+              border: 1px solid #ddd;
+            }
+    """;
+
+    static final String JAVASCRIPT = """
+        document.addEventListener('DOMContentLoaded', function() {
+            const filterToggle = document.getElementById('filter-toggle');
+            if (filterToggle) {
+              filterToggle.addEventListener('change', function () {
+                const filteredStackTrace = document.getElementById('filtered-stack-trace');
+                const fullStackTrace = document.getElementById('full-stack-trace');
+                if (this.checked) {
+                  fullStackTrace.style.display = 'block';
+                  filteredStackTrace.style.display = 'none';
+                  expandStackTrace(fullStackTrace);
+                } else {
+                  filteredStackTrace.style.display = 'block';
+                  fullStackTrace.style.display = 'none';
+                  expandStackTrace(filteredStackTrace);
+                }
+              });
+            }
+            function expandStackTrace(stackTraceElement) {
+              const headerElement = stackTraceElement.querySelector('.stacktrace-header.collapsible');
+              const contentElement = stackTraceElement.querySelector('.stacktrace-content');
+              if (headerElement && contentElement) {
+                headerElement.classList.add('active');
+                contentElement.style.display = 'block';
+                const toggleIcon = headerElement.querySelector('.toggle-icon');
+                if (toggleIcon) toggleIcon.textContent = '▲';
+              }
+            }
+            document.querySelectorAll('.copy-button').forEach(function(button) {
+                button.addEventListener('click', function(e) {
+                    e.stopPropagation();
+                    const textToCopy = this.closest('.stacktrace-container').querySelector('.stacktrace-content').innerText;
+                    navigator.clipboard.writeText(textToCopy).then(function() {
+                        const originalText = button.innerText;
+                        button.innerText = 'Copied!';
+                        setTimeout(function() {
+                            button.innerText = originalText;
+                        }, 2000);
+                    });
+                });
+            });
+            document.querySelectorAll('.collapsible').forEach(function(header) {
+                header.addEventListener('click', function() {
+                    const content = this.nextElementSibling;
+                    const toggleIcon = this.querySelector('.toggle-icon');
+                    if (content.style.display === 'none' || content.style.display === '') {
+                        content.style.display = 'block';
+                        if (toggleIcon) toggleIcon.textContent = '▲';
+                    } else {
+                        content.style.display = 'none';
+                        if (toggleIcon) toggleIcon.textContent = '▼';
+                    }
+                });
+            });
+        });
+    """;
+
+    private final Asset stylesheet;
+    private final Asset script;
+    private final Map<String, Asset> byName;
+
+    ErrorPageAssets(@Value("${error.page.assets.path:/_error/assets}") String path) {
+        this.stylesheet = asset(path, "error-page", "css", "text/css; charset=utf-8", CSS);
+        this.script = asset(path, "error-page", "js", "text/javascript; charset=utf-8", JAVASCRIPT);
+        this.byName = Map.of(stylesheet.name(), stylesheet, script.name(), script);
+    }
+
+    public Asset stylesheet() {
+        return stylesheet;
+    }
+
+    public Asset script() {
+        return script;
+    }
+
+    /**
+     * @param name the hashed file name
+     * @return the asset or {@code null} for names of other (e.g. outdated) versions
+     */
+    public Asset find(String name) {
+        return byName.get(name);
+    }
+
+    private static Asset asset(String path, String baseName, String extension, String contentType, String content) {
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        String hash = HexFormat.of().formatHex(sha256(body), 0, 8);
+        String name = baseName + "." + hash + "." + extension;
+        String base = path.endsWith("/") ? path : path + "/";
+        return new Asset(name, base + name, contentType, new CompressedBody(body));
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param name        the content-hashed file name
+     * @param uri         the path the page links to
+     * @param contentType the response content type
+     * @param body        the pre-encoded body and its compressed variants
+     */
+    public record Asset(String name, String uri, String contentType, CompressedBody body) {
+
+        /**
+         * @param coding the coding the asset is sent in
+         * @return the strong entity tag of that representation
+         */
+        public String etag(ContentCoding coding) {
+            return body.etag(coding);
+        }
+    }
+}
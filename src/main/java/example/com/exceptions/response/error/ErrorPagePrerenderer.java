@@ -0,0 +1,51 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Build-time entry point of the {@code prerenderErrorPages} Gradle task. Renders the production page of every
+ * 4xx and 5xx status for each locale in {@code error.pages.locales} into the layout read by
+ * {@link PrerenderedErrorPages}.
+ */
+public final class ErrorPagePrerenderer {
+
+    private ErrorPagePrerenderer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get(args[0]);
+        try (ApplicationContext context = ApplicationContext.run(Map.of("micronaut.environment", "production"))) {
+            DefaultHtmlProvider provider = context.getBean(DefaultHtmlProvider.class);
+            List<String> locales = context.getEnvironment()
+                    .getProperty("error.pages.locales", Argument.listOf(String.class))
+                    .orElse(List.of("en"));
+
+            StringBuilder index = new StringBuilder();
+            for (String tag : locales) {
+                Locale locale = Locale.forLanguageTag(tag.trim());
+                Path directory = output.resolve(PrerenderedErrorPages.LOCATION).resolve(locale.toLanguageTag());
+                Files.createDirectories(directory);
+                for (HttpStatus status : HttpStatus.values()) {
+                    if (status.getCode() < 400) {
+                        continue;
+                    }
+                    String html = provider.prerender(status.getCode(), status.getReason(), locale);
+                    Files.writeString(directory.resolve(status.getCode() + ".html"), html, StandardCharsets.UTF_8);
+                    index.append(locale.toLanguageTag()).append('/').append(status.getCode()).append('\n');
+                }
+            }
+            Files.writeString(output.resolve(PrerenderedErrorPages.INDEX), index, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package example.com.exceptions.response.error;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An error page shell parsed once into static segments separated by typed {@link Slot}s.
+ * <p>
+ * Placeholders use the {@code {{name}}} syntax. Names matching a {@link Slot} are filled on every render,
+ * any other name is a static include that must be supplied when the template is compiled. Static segments
+ * are kept both as text, for the pages providers return as strings, and as pre-encoded UTF-8 bytes, which
+ * {@link StreamingHtmlErrorPage} copies into its chunks as is so a streamed page only encodes the dynamic parts.
+ */
+public final class ErrorPageTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] texts;
+    private final byte[][] bytes;
+    private final Slot[] slots;
+    private final int staticLength;
+    private final int staticBytes;
+
+    private ErrorPageTemplate(List<String> texts, List<Slot> slots) {
+        this.texts = texts.toArray(new String[0]);
+        this.slots = slots.toArray(new Slot[0]);
+        this.bytes = new byte[this.texts.length][];
+        int length = 0;
+        int byteLength = 0;
+        for (int i = 0; i < this.texts.length; i++) {
+            this.bytes[i] = this.texts[i].getBytes(StandardCharsets.UTF_8);
+            length += this.texts[i].length();
+            byteLength += this.bytes[i].length;
+        }
+        this.staticLength = length;
+        this.staticBytes = byteLength;
+    }
+
+    /**
+     * Parses a template source.
+     *
+     * @param source   the template text
+     * @param includes static content for placeholders that are not slots, inlined at compile time
+     * @return the compiled template
+     * @throws IllegalArgumentException if a placeholder is neither a slot nor a known include
+     */
+    public static ErrorPageTemplate compile(String source, Map<String, String> includes) {
+        List<String> texts = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        StringBuilder current = new StringBuilder(source.length());
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (open < 0 || close < 0) {
+                current.append(source, position, source.length());
+                break;
+            }
+            current.append(source, position, open);
+            String name = source.substring(open + OPEN.length(), close).trim();
+            Slot slot = Slot.forName(name);
+            if (slot != null) {
+                texts.add(current.toString());
+                slots.add(slot);
+                current.setLength(0);
+            } else if (includes.containsKey(name)) {
+                current.append(includes.get(name));
+            } else {
+                throw new IllegalArgumentException("Unknown error page placeholder: " + name);
+            }
+            position = close + CLOSE.length();
+        }
+        texts.add(current.toString());
+        return new ErrorPageTemplate(texts, slots);
+    }
+
+    /**
+     * @return an empty value array indexed by {@link Slot#ordinal()}
+     */
+    public static String[] newValues() {
+        return new String[Slot.values().length];
+    }
+
+    /**
+     * Renders the page as text.
+     *
+     * @param values slot values indexed by {@link Slot#ordinal()}, {@code null} entries render as empty
+     * @return the rendered page
+     */
+    public String render(String[] values) {
+        int length = staticLength;
+        for (Slot slot : slots) {
+            String value = values[slot.ordinal()];
+            if (value != null) {
+                length += value.length();
+            }
+        }
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(texts[i]);
+            String value = values[slots[i].ordinal()];
+            if (value != null) {
+                sb.append(value);
+            }
+        }
+        return sb.append(texts[slots.length]).toString();
+    }
+
+    /**
+     * @return the UTF-8 length of the page without slot values
+     */
+    public int staticBytes() {
+        return staticBytes;
+    }
+
+    /**
+     * @return the number of slots, static segments number one more
+     */
+    public int slotCount() {
+        return slots.length;
+    }
+
+    /**
+     * @param index the slot position in the page
+     * @return the slot at that position
+     */
+    public Slot slot(int index) {
+        return slots[index];
+    }
+
+    /**
+     * @param slot a slot
+     * @return the position of its first occurrence in the page, or {@code -1}
+     */
+    public int indexOf(Slot slot) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == slot) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param index the static segment position, {@code 0..slotCount()}
+     * @return the static text preceding the slot of the same index
+     */
+    public String text(int index) {
+        return texts[index];
+    }
+
+    /**
+     * @param index the static segment position, {@code 0..slotCount()}
+     * @return the pre-encoded UTF-8 bytes of that segment, not to be modified
+     */
+    public byte[] bytes(int index) {
+        return bytes[index];
+    }
+
+    /**
+     * The dynamic parts of an error page.
+     */
+    public enum Slot {
+        STATUS("status"),
+        TITLE("title"),
+        HEADER("header"),
+        ARTICLE("article"),
+        SECTIONS("sections");
+
+        private final String placeholder;
+
+        Slot(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        public String placeholder() {
+            return placeholder;
+        }
+
+        static Slot forName(String name) {
+            for (Slot slot : values()) {
+                if (slot.placeholder.equals(name)) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.core.io.ResourceResolver;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compiles the error page shell once at startup. The built-in page is used unless
+ * {@code error.page.template} points to a resource such as {@code classpath:templates/error.html}.
+ * Templates may reference the built-in styles and scripts through the {@code {{styles}}} and
+ * {@code {{scripts}}} includes, which expand to inline elements or, with
+ * {@code error.page.assets.external=true}, to links to the {@link ErrorPageAssets} route.
+ */
+@Factory
+public class ErrorPageTemplateFactory {
+
+    static final String DEFAULT_TEMPLATE = """
+            <!doctype html>
+            <html lang="en">
+            <head>
+                <title>{{status}} — {{title}}</title>
+                <meta charset="utf-8">
+                <meta name="viewport" content="initial-scale=1, width=device-width">
+                <meta name="robots" content="noindex, nofollow">
+                {{styles}}
+                {{scripts}}
+            </head>
+            <body>
+                <main>
+                    <header>{{header}}</header>
+                    <article>{{article}}</article>
+                    {{sections}}
+                </main>
+            </body>
+            </html>
+            """;
+
+    @Singleton
+    ErrorPageTemplate errorPageTemplate(ResourceResolver resourceResolver,
+                                        ErrorPageAssets assets,
+                                        @Value("${error.page.template:}") String location,
+                                        @Value("${error.page.assets.external:false}") boolean externalAssets) {
+        String source = location.isEmpty() ? DEFAULT_TEMPLATE : load(resourceResolver, location);
+        Map<String, String> includes = externalAssets
+                ? Map.of("styles", "<link rel=\"stylesheet\" href=\"" + assets.stylesheet().uri() + "\">",
+                         "scripts", "<script src=\"" + assets.script().uri() + "\" defer></script>")
+                : Map.of("styles", "<style>" + ErrorPageAssets.CSS + "</style>",
+                         "scripts", "<script>" + ErrorPageAssets.JAVASCRIPT + "</script>");
+        try {
+            return ErrorPageTemplate.compile(source, includes);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Invalid error page template " + location + ": " + e.getMessage());
+        }
+    }
+
+    private String load(ResourceResolver resourceResolver, String location) {
+        Optional<InputStream> resource = resourceResolver.getResourceAsStream(location);
+        if (resource.isEmpty()) {
+            throw new ConfigurationException("Error page template not found: " + location);
+        }
+        try (InputStream in = resource.get()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ConfigurationException("Error page template could not be read: " + location, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+
+/**
+ * With {@code error.eager-init=true}, creates both error providers and everything they depend on, such as the
+ * per-locale message tables, the compiled page template and the pre-rendered pages, while the application
+ * starts instead of on the first error. Startup takes longer and the first error response is faster; the
+ * {@code startupBenchmark} Gradle task reports both.
+ */
+@Context
+@Requires(property = "error.eager-init", value = "true")
+public class ErrorProvidersEagerInit {
+
+    ErrorProvidersEagerInit(DefaultHtmlProvider htmlProvider, DefaultJsonProvider jsonProvider) {
+    }
+}
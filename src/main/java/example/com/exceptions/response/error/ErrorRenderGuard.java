@@ -0,0 +1,162 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpRequest;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides per error whether the providers render the full page or a minimal pre-rendered body.
+ * <p>
+ * Errors are counted in one-second buckets over {@code error.degraded.window-seconds}. Once the average rate
+ * exceeds {@code error.degraded.rate-threshold} errors per second, renders degrade until the rate falls below
+ * {@code error.degraded.recovery-ratio} of the threshold. Independently, at most
+ * {@code error.degraded.max-concurrent-renders} full renders run at once; errors beyond that degrade too.
+ */
+@Singleton
+public class ErrorRenderGuard {
+
+    private static final String ATTRIBUTE = ErrorRenderGuard.class.getName();
+
+    private final long threshold;
+    private final long recoveryThreshold;
+    private final int windowSeconds;
+    private final Semaphore renders;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray seconds;
+    private final LongAdder[] modes = new LongAdder[Mode.values().length];
+    private final LongAdder activations = new LongAdder();
+    private volatile boolean degraded;
+
+    private final Permit full = new Permit(Mode.FULL);
+    private final Permit minimal = new Permit(Mode.DEGRADED);
+    private final Permit nested = new Permit(null);
+
+    ErrorRenderGuard(@Value("${error.degraded.rate-threshold:200}") long threshold,
+                     @Value("${error.degraded.recovery-ratio:0.8}") double recoveryRatio,
+                     @Value("${error.degraded.window-seconds:10}") int windowSeconds,
+                     @Value("${error.degraded.max-concurrent-renders:8}") int maxConcurrentRenders) {
+        this.threshold = threshold * windowSeconds;
+        this.recoveryThreshold = (long) (this.threshold * recoveryRatio);
+        this.windowSeconds = windowSeconds;
+        this.renders = new Semaphore(maxConcurrentRenders);
+        this.counts = new AtomicLongArray(windowSeconds);
+        this.seconds = new AtomicLongArray(windowSeconds);
+        for (int i = 0; i < modes.length; i++) {
+            modes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records an error and picks the render mode. Nested renders of the same request, such as the JSON section of
+     * the HTML page, neither count again nor take another slot.
+     *
+     * @param request the failed request, may be {@code null}
+     * @return a permit to close once the body is rendered
+     */
+    public Permit acquire(HttpRequest<?> request) {
+        if (request != null) {
+            if (request.getAttribute(ATTRIBUTE).isPresent()) {
+                return nested;
+            }
+            request.setAttribute(ATTRIBUTE, Boolean.TRUE);
+        }
+        long recent = record(System.currentTimeMillis() / 1000);
+        if (degraded ? recent >= recoveryThreshold : recent > threshold) {
+            if (!degraded) {
+                degraded = true;
+                activations.increment();
+            }
+        } else {
+            degraded = false;
+            if (renders.tryAcquire()) {
+                modes[Mode.FULL.ordinal()].increment();
+                return full;
+            }
+        }
+        modes[Mode.DEGRADED.ordinal()].increment();
+        return minimal;
+    }
+
+    /**
+     * @param mode a render mode
+     * @return how many errors were rendered in that mode since startup
+     */
+    public long count(Mode mode) {
+        return modes[mode.ordinal()].sum();
+    }
+
+    /**
+     * @return how many times the error rate switched renders to degraded since startup
+     */
+    public long activations() {
+        return activations.sum();
+    }
+
+    /**
+     * @return whether the error rate currently keeps renders degraded
+     */
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    private long record(long now) {
+        int index = (int) (now % windowSeconds);
+        long second = seconds.get(index);
+        if (second != now && seconds.compareAndSet(index, second, now)) {
+            counts.set(index, 0);
+        }
+        counts.incrementAndGet(index);
+
+        long total = 0;
+        for (int i = 0; i < windowSeconds; i++) {
+            if (now - seconds.get(i) < windowSeconds) {
+                total += counts.get(i);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * How an error body is rendered.
+     */
+    public enum Mode {
+        FULL,
+        DEGRADED
+    }
+
+    /**
+     * A render slot. Closing a full permit frees the slot for the next error.
+     */
+    public final class Permit implements AutoCloseable {
+        private final Mode mode;
+
+        private Permit(Mode mode) {
+            this.mode = mode;
+        }
+
+        /**
+         * @return whether the provider should fall back to its minimal body
+         */
+        public boolean degraded() {
+            return mode == Mode.DEGRADED;
+        }
+
+        /**
+         * @return whether this is a nested render of an error already counted
+         */
+        public boolean nested() {
+            return mode == null;
+        }
+
+        @Override
+        public void close() {
+            if (mode == Mode.FULL) {
+                renders.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package example.com.exceptions.response.error;
+
+import jakarta.inject.Singleton;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what the error providers render: bodies per format and status, render latency and body size.
+ * <p>
+ * Every counter is a striped {@link LongAdder}, so concurrent errors never contend on a shared cache line; the
+ * cost moves to {@link #snapshot()}, which sums the stripes. Latencies go into power-of-two buckets, which is
+ * coarse but fixed in size and lock-free; percentiles are reported as the upper bound of their bucket.
+ */
+@Singleton
+public class ErrorRenderMetrics {
+
+    private static final int FIRST_STATUS = 400;
+    private static final int STATUSES = 200;
+    private static final int BUCKETS = 64;
+
+    private final Counters[] counters = new Counters[Format.values().length];
+
+    public ErrorRenderMetrics() {
+        for (Format format : Format.values()) {
+            counters[format.ordinal()] = new Counters();
+        }
+    }
+
+    /**
+     * Records one rendered body. Nested renders, such as the JSON section of the HTML page, are part of the
+     * enclosing render and are not recorded again.
+     *
+     * @param format the body format
+     * @param permit the permit the body was rendered under
+     * @param status the response status
+     * @param nanos  the time spent rendering
+     * @param bytes  the body size in bytes, or a negative value if it is not known yet
+     */
+    public void record(Format format, ErrorRenderGuard.Permit permit, int status, long nanos, long bytes) {
+        if (permit.nested()) {
+            return;
+        }
+        counters[format.ordinal()].record(status, nanos, bytes);
+    }
+
+    /**
+     * Adds the size of a body that is only serialized after its render was recorded, as JSON bodies are.
+     *
+     * @param format the body format
+     * @param bytes  the body size in bytes
+     */
+    public void recordBytes(Format format, long bytes) {
+        counters[format.ordinal()].bytes.add(bytes);
+    }
+
+    /**
+     * @return the counters of every format, keyed by format name
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        for (Format format : Format.values()) {
+            snapshot.put(format.name().toLowerCase(), counters[format.ordinal()].snapshot());
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param format a body format
+     * @return how many bodies of that format were rendered since startup
+     */
+    public long count(Format format) {
+        return counters[format.ordinal()].count.sum();
+    }
+
+    static int bucket(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+    }
+
+    static long upperBound(int bucket) {
+        return bucket >= 63 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * An error body format.
+     */
+    public enum Format {
+        HTML,
+        JSON
+    }
+
+    private static final class Counters {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder[] statuses = adders(STATUSES + 1);
+        private final LongAdder[] latencies = adders(BUCKETS);
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder bytes = new LongAdder();
+
+        void record(int status, long nanos, long size) {
+            int index = status - FIRST_STATUS;
+            statuses[index >= 0 && index < STATUSES ? index : STATUSES].increment();
+            count.increment();
+            latencies[bucket(nanos)].increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (size >= 0) {
+                bytes.add(size);
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            for (int i = 0; i < STATUSES; i++) {
+                long n = statuses[i].sum();
+                if (n > 0) {
+                    byStatus.put(String.valueOf(FIRST_STATUS + i), n);
+                }
+            }
+            long other = statuses[STATUSES].sum();
+            if (other > 0) {
+                byStatus.put("other", other);
+            }
+
+            long[] buckets = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = latencies[i].sum();
+                total += buckets[i];
+            }
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                if (buckets[i] > 0) {
+                    histogram.put("le" + upperBound(i), buckets[i]);
+                }
+            }
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("meanNanos", total == 0 ? 0 : totalNanos.sum() / total);
+            latency.put("p50Nanos", percentile(buckets, total, 0.5));
+            latency.put("p99Nanos", percentile(buckets, total, 0.99));
+            latency.put("p999Nanos", percentile(buckets, total, 0.999));
+            latency.put("maxNanos", maxNanos.get());
+            latency.put("histogram", histogram);
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("count", count.sum());
+            snapshot.put("statuses", byStatus);
+            snapshot.put("latency", latency);
+            snapshot.put("bytes", bytes.sum());
+            return snapshot;
+        }
+
+        private static long percentile(long[] buckets, long total, double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(buckets.length - 1);
+        }
+
+        private static LongAdder[] adders(int size) {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
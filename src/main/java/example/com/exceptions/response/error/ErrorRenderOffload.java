@@ -0,0 +1,113 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpRequest;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Moves error rendering, with its source file reads, off the thread that failed, which is usually a Netty event
+ * loop also serving other connections.
+ * <p>
+ * Only renders that read source files are deferred: the HTML provider, called on a platform thread for a page with
+ * source snippets, returns its minimal body as a placeholder and leaves the render in a request attribute, which
+ * {@link ErrorRenderOffloadFilter} runs on a virtual thread before putting the result in the response. Every other
+ * body, including all JSON bodies, is rendered inline and returned as is. At most
+ * {@code error.offload.max-pending} renders are queued or running; beyond that, and if the executor is shut down,
+ * the render runs on the calling thread as it would without offloading. Renders already on a virtual thread run in
+ * place. Set {@code error.offload.enabled} to {@code false} to render inline.
+ */
+@Singleton
+public class ErrorRenderOffload {
+
+    /**
+     * The request attribute holding the deferred render.
+     */
+    public static final String ATTRIBUTE = ErrorRenderOffload.class.getName();
+
+    private final boolean enabled;
+    private final Semaphore pending;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("error-render-", 0).factory());
+    private final LongAdder offloaded = new LongAdder();
+    private final LongAdder inline = new LongAdder();
+
+    ErrorRenderOffload(@Value("${error.offload.enabled:true}") boolean enabled,
+                       @Value("${error.offload.max-pending:256}") int maxPending) {
+        this.enabled = enabled;
+        this.pending = new Semaphore(maxPending);
+    }
+
+    /**
+     * @param request the failed request, may be {@code null}
+     * @param render  renders the body
+     * @return whether the render was deferred; if not, the caller renders now
+     */
+    public boolean defer(HttpRequest<?> request, Supplier<?> render) {
+        if (!enabled || request == null || Thread.currentThread().isVirtual()
+                || request.getAttribute(ATTRIBUTE).isPresent()) {
+            return false;
+        }
+        request.setAttribute(ATTRIBUTE, render);
+        return true;
+    }
+
+    /**
+     * @param render a deferred render
+     * @return the rendered body, completed on a virtual thread, or right away when the queue is full
+     */
+    public CompletableFuture<Object> render(Supplier<?> render) {
+        if (pending.tryAcquire()) {
+            try {
+                CompletableFuture<Object> body = CompletableFuture.supplyAsync(render::get, executor);
+                body.whenComplete((b, failure) -> pending.release());
+                offloaded.increment();
+                return body;
+            } catch (RejectedExecutionException e) {
+                pending.release();
+            }
+        }
+        inline.increment();
+        try {
+            return CompletableFuture.completedFuture(render.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @return runs work that continues a render, such as the chunks of a {@link StreamingHtmlErrorPage}, on a
+     * virtual thread, or on the calling thread when offloading is disabled
+     */
+    public Executor executor() {
+        return enabled ? executor : Runnable::run;
+    }
+
+    /**
+     * @return how many renders ran on a virtual thread since startup
+     */
+    public long offloaded() {
+        return offloaded.sum();
+    }
+
+    /**
+     * @return how many deferred renders ran on the calling thread because the queue was full
+     */
+    public long inline() {
+        return inline.sum();
+    }
+
+    @PreDestroy
+    void close() {
+        executor.shutdown();
+    }
+}
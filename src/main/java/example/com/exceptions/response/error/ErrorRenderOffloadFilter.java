@@ -0,0 +1,50 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.core.annotation.Order;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.ResponseFilter;
+import io.micronaut.http.annotation.ServerFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs the render an error provider deferred through {@link ErrorRenderOffload} and replaces the placeholder body
+ * with its result. The server continues with the response once the future completes and writes it on the
+ * connection's event loop.
+ * <p>
+ * Ordered last, so its response filter runs before every other one: {@link ErrorIdFilter} and
+ * {@link ErrorCompressionFilter} must see the rendered body. If the render fails, the placeholder is sent.
+ */
+@ServerFilter(ServerFilter.MATCH_ALL_PATTERN)
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ErrorRenderOffloadFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ErrorRenderOffloadFilter.class);
+
+    private final ErrorRenderOffload offload;
+
+    ErrorRenderOffloadFilter(ErrorRenderOffload offload) {
+        this.offload = offload;
+    }
+
+    @ResponseFilter
+    public CompletableFuture<MutableHttpResponse<?>> render(HttpRequest<?> request, MutableHttpResponse<?> response) {
+        Supplier<?> render = request.getAttribute(ErrorRenderOffload.ATTRIBUTE, Supplier.class).orElse(null);
+        if (render == null) {
+            return CompletableFuture.completedFuture(response);
+        }
+        return offload.render(render).handle((body, failure) -> {
+            if (failure != null) {
+                LOG.warn("Rendering the error body of {} failed, sending the minimal body", request.getPath(), failure);
+            } else {
+                response.body(body);
+            }
+            return response;
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.core.annotation.Order;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.ResponseFilter;
+import io.micronaut.http.annotation.ServerFilter;
+
+/**
+ * Sends the {@link StreamingHtmlErrorPage} the HTML provider left in a request attribute instead of the minimal
+ * body it returned as a placeholder. The server writes a streamed body in chunks as it requests them.
+ * <p>
+ * Its response filter runs right after {@link ErrorRenderOffloadFilter}, whose deferred render may choose to
+ * stream, and before {@link ErrorFormatFilter}, which replaces the page for clients preferring a compact format.
+ */
+@ServerFilter(ServerFilter.MATCH_ALL_PATTERN)
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ErrorStreamingFilter {
+
+    @ResponseFilter
+    public void stream(HttpRequest<?> request, MutableHttpResponse<?> response) {
+        request.getAttribute(StreamingHtmlErrorPage.ATTRIBUTE, StreamingHtmlErrorPage.class)
+                .ifPresent(response::body);
+    }
+}
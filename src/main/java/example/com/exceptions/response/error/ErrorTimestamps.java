@@ -0,0 +1,126 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.exceptions.ConfigurationException;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The timestamps printed in error bodies, in ISO-8601 UTC such as {@code 2024-05-01T12:30:45.123Z}.
+ * <p>
+ * The date and time of day are formatted once per second and cached; each timestamp only writes the fraction
+ * into a copy of the cached prefix. {@code error.timestamp.precision} selects {@code seconds}, {@code millis}
+ * (the default) or {@code micros}.
+ */
+@Singleton
+public class ErrorTimestamps {
+
+    private static final DateTimeFormatter PREFIX = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss");
+
+    private final Precision precision;
+    private final Clock clock;
+    private volatile Second second = new Second(Long.MIN_VALUE, new byte[0]);
+
+    @Inject
+    ErrorTimestamps(@Value("${error.timestamp.precision:millis}") String precision) {
+        this(precision(precision), Clock.systemUTC());
+    }
+
+    /**
+     * @param precision the fraction of a second to print
+     * @param clock     the time source
+     */
+    public ErrorTimestamps(Precision precision, Clock clock) {
+        this.precision = precision;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the current time
+     */
+    public String now() {
+        long time = read();
+        return format(time / 1_000_000_000L, (int) (time % 1_000_000_000L));
+    }
+
+    private static Precision precision(String value) {
+        try {
+            return Precision.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            String allowed = Arrays.stream(Precision.values())
+                    .map(precision -> precision.name().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.joining(", "));
+            throw new ConfigurationException("Invalid error.timestamp.precision '" + value + "', expected one of "
+                    + allowed);
+        }
+    }
+
+    String format(long epochSecond, int nanos) {
+        byte[] prefix = prefix(epochSecond);
+        int digits = precision.digits;
+        byte[] out = new byte[prefix.length + (digits == 0 ? 0 : digits + 1) + 1];
+        System.arraycopy(prefix, 0, out, 0, prefix.length);
+        int position = prefix.length;
+        if (digits > 0) {
+            out[position] = '.';
+            int fraction = nanos / precision.divisor;
+            for (int i = position + digits; i > position; i--) {
+                out[i] = (byte) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            position += digits + 1;
+        }
+        out[position] = 'Z';
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return nanoseconds since the epoch, at the configured precision
+     */
+    private long read() {
+        if (precision == Precision.MICROS) {
+            Instant instant = clock.instant();
+            return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+        }
+        return clock.millis() * 1_000_000L;
+    }
+
+    private byte[] prefix(long epochSecond) {
+        Second cached = second;
+        if (cached.epochSecond != epochSecond) {
+            String formatted = PREFIX.format(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC));
+            cached = new Second(epochSecond, formatted.getBytes(StandardCharsets.ISO_8859_1));
+            second = cached;
+        }
+        return cached.prefix;
+    }
+
+    /**
+     * The fraction of a second printed in timestamps.
+     */
+    public enum Precision {
+        SECONDS(0, 1_000_000_000),
+        MILLIS(3, 1_000_000),
+        MICROS(6, 1_000);
+
+        private final int digits;
+        private final int divisor;
+
+        Precision(int digits, int divisor) {
+            this.digits = digits;
+            this.divisor = divisor;
+        }
+    }
+
+    private record Second(long epochSecond, byte[] prefix) {}
+}
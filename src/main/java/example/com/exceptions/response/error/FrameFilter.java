@@ -0,0 +1,74 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.env.Environment;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.core.type.Argument;
+import io.micronaut.runtime.context.scope.refresh.RefreshEvent;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The frame filter shared by the HTML and JSON providers.
+ * <p>
+ * Rules come from {@code error.frame-filter.prefixes}, {@code error.frame-filter.patterns} and
+ * {@code error.frame-filter.unknown-source}. Without explicit prefixes, the legacy
+ * {@code filter.prefix.micronaut} and {@code filter.prefix.netty} properties are used. The compiled rules are
+ * swapped atomically when the environment is refreshed or {@link #reload(FrameMatcher)} is called, so renders
+ * in flight keep a consistent snapshot.
+ */
+@Singleton
+public class FrameFilter implements ApplicationEventListener<RefreshEvent> {
+
+    private static final String PREFIXES = "error.frame-filter.prefixes";
+    private static final String PATTERNS = "error.frame-filter.patterns";
+    private static final String UNKNOWN_SOURCE = "error.frame-filter.unknown-source";
+
+    private final Environment environment;
+    private final AtomicReference<FrameMatcher> matcher;
+
+    FrameFilter(Environment environment) {
+        this.environment = environment;
+        this.matcher = new AtomicReference<>(compile(environment));
+    }
+
+    /**
+     * @return the current rules; callers rendering a whole trace should use one snapshot throughout
+     */
+    public FrameMatcher matcher() {
+        return matcher.get();
+    }
+
+    /**
+     * @param element a stack frame
+     * @return whether the filtered stack trace hides the frame
+     */
+    public boolean filters(StackTraceElement element) {
+        return matcher.get().filters(element);
+    }
+
+    /**
+     * Replaces the rules for every subsequent render.
+     *
+     * @param rules the new rules
+     */
+    public void reload(FrameMatcher rules) {
+        matcher.set(rules);
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshEvent event) {
+        reload(compile(environment));
+    }
+
+    private static FrameMatcher compile(Environment environment) {
+        List<String> prefixes = environment.getProperty(PREFIXES, Argument.listOf(String.class))
+                .orElseGet(() -> List.of(
+                        environment.getProperty("filter.prefix.micronaut", String.class).orElse("io.micronaut"),
+                        environment.getProperty("filter.prefix.netty", String.class).orElse("io.netty")));
+        List<String> patterns = environment.getProperty(PATTERNS, Argument.listOf(String.class)).orElse(List.of());
+        boolean unknownSource = environment.getProperty(UNKNOWN_SOURCE, Boolean.class).orElse(true);
+        return new FrameMatcher(prefixes, patterns, unknownSource);
+    }
+}
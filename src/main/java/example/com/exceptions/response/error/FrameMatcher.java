@@ -0,0 +1,140 @@
+package example.com.exceptions.response.error;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable, compiled set of frame filter rules.
+ * <p>
+ * Package prefixes are compiled into a character trie, so a class name is checked against all of them in one
+ * pass regardless of how many there are. Glob patterns ({@code *} matches any run of characters) are combined
+ * into a single alternation. Verdicts are memoized per class name, since stack traces repeat the same classes.
+ */
+public final class FrameMatcher {
+
+    private static final int MAX_CACHED_CLASSES = 8192;
+
+    private final Node prefixes;
+    private final Pattern patterns;
+    private final boolean filterUnknownSource;
+    private final Map<String, Boolean> verdicts = new ConcurrentHashMap<>();
+
+    /**
+     * @param prefixes            class name prefixes to filter, e.g. {@code io.netty.}
+     * @param patterns            class name globs to filter, e.g. {@code *$$Lambda*}
+     * @param filterUnknownSource whether frames without source information are filtered
+     */
+    public FrameMatcher(List<String> prefixes, List<String> patterns, boolean filterUnknownSource) {
+        this.prefixes = new Node();
+        for (String prefix : prefixes) {
+            if (!prefix.isBlank()) {
+                this.prefixes.insert(prefix.trim());
+            }
+        }
+        this.patterns = compileGlobs(patterns);
+        this.filterUnknownSource = filterUnknownSource;
+    }
+
+    /**
+     * @param element a stack frame
+     * @return whether the filtered stack trace hides the frame
+     */
+    public boolean filters(StackTraceElement element) {
+        if (filterUnknownSource && element.getFileName() == null && !element.isNativeMethod()) {
+            return true;
+        }
+        return filtersClass(element.getClassName());
+    }
+
+    /**
+     * @param className a fully qualified class name
+     * @return whether frames and exceptions of that class are hidden
+     */
+    public boolean filtersClass(String className) {
+        Boolean verdict = verdicts.get(className);
+        if (verdict == null) {
+            verdict = prefixes.matchesPrefixOf(className)
+                    || (patterns != null && patterns.matcher(className).matches());
+            if (verdicts.size() < MAX_CACHED_CLASSES) {
+                verdicts.put(className, verdict);
+            }
+        }
+        return verdict;
+    }
+
+    private static Pattern compileGlobs(List<String> globs) {
+        StringBuilder regex = new StringBuilder();
+        for (String glob : globs) {
+            if (glob.isBlank()) {
+                continue;
+            }
+            if (!regex.isEmpty()) {
+                regex.append('|');
+            }
+            regex.append("(?:");
+            String[] parts = glob.trim().split("\\*", -1);
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    regex.append(".*");
+                }
+                if (!parts[i].isEmpty()) {
+                    regex.append(Pattern.quote(parts[i]));
+                }
+            }
+            regex.append(')');
+        }
+        return regex.isEmpty() ? null : Pattern.compile(regex.toString());
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean terminal;
+
+        void insert(String prefix) {
+            Node node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.childOrCreate(prefix.charAt(i));
+            }
+            node.terminal = true;
+        }
+
+        boolean matchesPrefixOf(String className) {
+            Node node = this;
+            for (int i = 0; i < className.length(); i++) {
+                if (node.terminal) {
+                    return true;
+                }
+                int index = Arrays.binarySearch(node.keys, className.charAt(i));
+                if (index < 0) {
+                    return false;
+                }
+                node = node.children[index];
+            }
+            return node.terminal;
+        }
+
+        private Node childOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertion = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertion);
+            System.arraycopy(children, 0, newChildren, 0, insertion);
+            newKeys[insertion] = key;
+            newChildren[insertion] = child;
+            System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+            System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package example.com.exceptions.response.error;
+
+/**
+ * Escapes text for HTML element content and quoted attribute values. Scans for the five characters that need
+ * escaping and copies the runs between them in bulk, writing straight into the caller's builder.
+ */
+public final class HtmlEscaper {
+
+    private static final String[] REPLACEMENTS = new String['>' + 1];
+
+    static {
+        REPLACEMENTS['&'] = "&amp;";
+        REPLACEMENTS['<'] = "&lt;";
+        REPLACEMENTS['>'] = "&gt;";
+        REPLACEMENTS['"'] = "&quot;";
+        REPLACEMENTS['\''] = "&#39;";
+    }
+
+    private HtmlEscaper() {
+    }
+
+    /**
+     * @param out   the builder to append to
+     * @param value the text to escape, {@code null} appends nothing
+     * @return the builder
+     */
+    public static StringBuilder escape(StringBuilder out, CharSequence value) {
+        if (value == null) {
+            return out;
+        }
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String replacement = replacement(value.charAt(i));
+            if (replacement != null) {
+                out.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        return out.append(value, start, length);
+    }
+
+    /**
+     * @param value the text to escape, may be {@code null}
+     * @return the escaped text; the same instance when nothing needs escaping, {@code ""} for {@code null}
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (replacement(value.charAt(i)) != null) {
+                StringBuilder out = new StringBuilder(value.length() + 16).append(value, 0, i);
+                return escape(out, value.subSequence(i, value.length())).toString();
+            }
+        }
+        return value;
+    }
+
+    private static String replacement(char c) {
+        return c < REPLACEMENTS.length ? REPLACEMENTS[c] : null;
+    }
+}
@@ -0,0 +1,121 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.core.io.ResourceResolver;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Production error pages rendered at build time by {@link ErrorPagePrerenderer} and packaged under
+ * {@value #LOCATION}. Each page is split at {@link #SECTIONS_MARKER}, so serving one only inserts the
+ * request information between two pre-encoded halves. Without packaged pages, lookups miss and the provider
+ * renders as usual.
+ */
+@Singleton
+public class PrerenderedErrorPages {
+
+    static final String LOCATION = "META-INF/error-pages/";
+    static final String INDEX = LOCATION + "pages.txt";
+    static final String SECTIONS_MARKER = "<!--error-page:sections-->";
+    private static final int MAX_STATUS = 600;
+    private static final Logger LOG = LoggerFactory.getLogger(PrerenderedErrorPages.class);
+
+    private final Map<Locale, Page[]> pages = new HashMap<>();
+
+    PrerenderedErrorPages(ResourceResolver resourceResolver) {
+        Optional<InputStream> index = resourceResolver.getResourceAsStream("classpath:" + INDEX);
+        if (index.isEmpty()) {
+            return;
+        }
+        try (InputStream in = index.get()) {
+            String[] entries = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            for (String entry : entries) {
+                if (!entry.isBlank()) {
+                    load(resourceResolver, entry.trim());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LOG.debug("Loaded pre-rendered error pages for {}", pages.keySet());
+    }
+
+    /**
+     * @param locale the resolved locale
+     * @param status the response status code
+     * @param reason the response reason, custom reasons are never pre-rendered
+     * @return the page or {@code null} if it has to be rendered
+     */
+    public Page find(Locale locale, int status, String reason) {
+        if (status < 0 || status >= MAX_STATUS) {
+            return null;
+        }
+        Page[] byStatus = pages.get(locale);
+        if (byStatus == null) {
+            byStatus = pages.get(Locale.forLanguageTag(locale.getLanguage()));
+        }
+        if (byStatus == null) {
+            return null;
+        }
+        Page page = byStatus[status];
+        return page != null && page.reason().equals(reason) ? page : null;
+    }
+
+    private void load(ResourceResolver resourceResolver, String entry) throws IOException {
+        int slash = entry.indexOf('/');
+        Locale locale = Locale.forLanguageTag(entry.substring(0, slash));
+        int status = Integer.parseInt(entry.substring(slash + 1));
+        Optional<InputStream> resource = resourceResolver.getResourceAsStream("classpath:" + LOCATION + entry + ".html");
+        if (resource.isEmpty()) {
+            return;
+        }
+        String html;
+        try (InputStream in = resource.get()) {
+            html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        int marker = html.indexOf(SECTIONS_MARKER);
+        if (marker < 0) {
+            return;
+        }
+        pages.computeIfAbsent(locale, l -> new Page[MAX_STATUS])[status] = new Page(
+                status,
+                HttpStatus.valueOf(status).getReason(),
+                html.substring(0, marker),
+                html.substring(marker + SECTIONS_MARKER.length()));
+    }
+
+    /**
+     * A pre-rendered page split around its sections.
+     *
+     * @param status the status code
+     * @param reason the standard reason phrase the page was rendered for
+     * @param head   everything before the sections
+     * @param tail   everything after the sections
+     * @param body   the page without sections, with its compressed variants
+     */
+    public record Page(int status, String reason, String head, String tail, CompressedBody body) {
+
+        Page(int status, String reason, String head, String tail) {
+            this(status, reason, head, tail, new CompressedBody(head + tail));
+        }
+
+        /**
+         * @param sections the request-specific sections
+         * @return the complete page
+         */
+        public String render(String sections) {
+            return new StringBuilder(head.length() + sections.length() + tail.length())
+                    .append(head).append(sections).append(tail).toString();
+        }
+    }
+}
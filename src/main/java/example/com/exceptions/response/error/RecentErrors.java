@@ -0,0 +1,258 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.BasicHttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import jakarta.inject.Singleton;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gives every error an ID and remembers the most recent ones, so an incident can be traced from the ID a client
+ * reports to the exception behind it, and the errors firing most can be listed without searching the logs.
+ * <p>
+ * Errors go into a ring of {@code error.recent.capacity} slots, claimed with a single atomic increment and
+ * published with a single store, and are counted per {@link Signature} in ten-second buckets covering the last
+ * fifteen minutes. Once a signature has been seen, recording never waits for other threads: slow readers see an
+ * overwritten slot and skip it, and a bucket rolling over while another thread counts into it may lose that
+ * count. At most {@code error.recent.max-fingerprints} signatures are counted individually; the rest are counted
+ * together.
+ */
+@Singleton
+public class RecentErrors {
+
+    /**
+     * The request attribute holding the error ID.
+     */
+    public static final String ATTRIBUTE = RecentErrors.class.getName() + ".id";
+
+    /**
+     * The windows {@link #top(int)} counts over, in minutes.
+     */
+    public static final int[] WINDOW_MINUTES = {1, 5, 15};
+
+    private static final long BUCKET_MILLIS = 10_000;
+    private static final int BUCKETS = 15 * 60_000 / (int) BUCKET_MILLIS;
+    private static final Signature OTHER = new Signature(0, null, null, null);
+
+    private final String prefix = Long.toString(ThreadLocalRandom.current().nextLong(1L << 40, 1L << 41), 36);
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicReferenceArray<RecentError> ring;
+    private final int mask;
+    private final int maxFingerprints;
+    private final Map<Signature, Counts> counts = new ConcurrentHashMap<>();
+    private final AtomicInteger signatures = new AtomicInteger();
+
+    /**
+     * @param capacity        recent errors kept, rounded up to a power of two
+     * @param maxFingerprints signatures counted individually
+     */
+    public RecentErrors(@Value("${error.recent.capacity:1024}") int capacity,
+                        @Value("${error.recent.max-fingerprints:1024}") int maxFingerprints) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    /**
+     * @param request the failed request, may be {@code null}
+     * @return the ID of its error, assigned on first use
+     */
+    public String id(HttpRequest<?> request) {
+        if (request != null) {
+            String id = request.getAttribute(ATTRIBUTE, String.class).orElse(null);
+            if (id != null) {
+                return id;
+            }
+        }
+        String id = prefix + "-" + Long.toString(ids.incrementAndGet(), 36);
+        if (request != null) {
+            request.setAttribute(ATTRIBUTE, id);
+        }
+        return id;
+    }
+
+    /**
+     * Records an error rendered without a model, fingerprinting its root cause directly.
+     *
+     * @param errorContext the error
+     * @param response     the error response
+     * @return the error ID
+     */
+    public String record(ErrorContext errorContext, HttpResponse<?> response) {
+        HttpRequest<?> request = errorContext.getRequest();
+        String id = id(request);
+        Throwable rootCause = errorContext.getRootCause().orElse(null);
+        record(id, response.code(), request, rootCause == null ? null : ErrorFingerprint.of(rootCause));
+        return id;
+    }
+
+    /**
+     * Records an error. Call once per error.
+     *
+     * @param id          the error ID
+     * @param status      the response status
+     * @param request     the failed request, may be {@code null}
+     * @param fingerprint the root cause fingerprint, {@code null} without an exception
+     */
+    public void record(String id, int status, HttpRequest<?> request, ErrorFingerprint fingerprint) {
+        String method = null;
+        String route = null;
+        String path = null;
+        if (request != null) {
+            method = request.getMethod().toString();
+            route = BasicHttpAttributes.getUriTemplate(request).orElse(null);
+            path = request.getPath();
+        }
+        long now = System.currentTimeMillis();
+        Signature signature = new Signature(status, method, route, fingerprint);
+        counts(signature).record(now);
+
+        long sequence = head.getAndIncrement();
+        ring.set((int) (sequence & mask), new RecentError(sequence, id, signature, path, now));
+    }
+
+    /**
+     * @param limit how many errors to return at most, none if not positive
+     * @return the most recent errors, newest first
+     */
+    public List<RecentError> recent(int limit) {
+        long end = head.get();
+        long start = Math.max(0, end - Math.clamp(limit, 0, ring.length()));
+        List<RecentError> recent = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            RecentError error = ring.get((int) (sequence & mask));
+            // a writer may have claimed the slot but not stored its error yet, or a newer error may be there
+            if (error != null && error.sequence() == sequence) {
+                recent.add(error);
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * @param limit how many signatures to return per window, none if not positive
+     * @return per window in {@link #WINDOW_MINUTES}, keyed like {@code 5m}, the signatures counted most in it
+     */
+    public Map<String, List<TopError>> top(int limit) {
+        long bucket = System.currentTimeMillis() / BUCKET_MILLIS;
+        Map<String, List<TopError>> top = new LinkedHashMap<>();
+        for (int minutes : WINDOW_MINUTES) {
+            int buckets = (int) (minutes * 60_000L / BUCKET_MILLIS);
+            List<TopError> window = new ArrayList<>();
+            counts.forEach((signature, c) -> {
+                long count = c.sum(bucket, buckets);
+                if (count > 0) {
+                    window.add(new TopError(signature, count, c.total.sum(), c.lastSeen));
+                }
+            });
+            window.sort(Comparator.comparingLong(TopError::count).reversed());
+            top.put(minutes + "m", List.copyOf(window.subList(0, Math.clamp(limit, 0, window.size()))));
+        }
+        return top;
+    }
+
+    private Counts counts(Signature signature) {
+        Counts c = counts.get(signature);
+        if (c != null) {
+            return c;
+        }
+        if (signatures.get() >= maxFingerprints) {
+            return counts.computeIfAbsent(OTHER, s -> new Counts());
+        }
+        return counts.computeIfAbsent(signature, s -> {
+            signatures.incrementAndGet();
+            return new Counts();
+        });
+    }
+
+    /**
+     * What errors are grouped by: the status, the route and the root cause.
+     *
+     * @param status      the response status, 0 for the group of signatures beyond the bound
+     * @param method      the request method, may be {@code null}
+     * @param route       the URI template of the matched route, {@code null} when no route matched
+     * @param fingerprint the root cause fingerprint, {@code null} without an exception
+     */
+    public record Signature(int status, String method, String route, ErrorFingerprint fingerprint) {
+
+        /**
+         * @return a short stable hash identifying the signature across requests
+         */
+        public String id() {
+            long hash = ErrorFingerprint.mix(fingerprint == null ? 0 : fingerprint.frames(), status);
+            hash = ErrorFingerprint.mix(hash, Objects.hashCode(method));
+            hash = ErrorFingerprint.mix(hash, Objects.hashCode(route));
+            hash = ErrorFingerprint.mix(hash, fingerprint == null ? 0 : fingerprint.type().hashCode());
+            return Long.toHexString(hash);
+        }
+    }
+
+    /**
+     * @param sequence    the position of the error in the ring, counting from startup
+     * @param id          the error ID
+     * @param signature   what the error is grouped by
+     * @param path        the request path, may be {@code null}
+     * @param epochMillis when the error was recorded
+     */
+    public record RecentError(long sequence, String id, Signature signature, String path, long epochMillis) {
+
+        public Instant time() {
+            return Instant.ofEpochMilli(epochMillis);
+        }
+    }
+
+    /**
+     * @param signature      what the errors are grouped by
+     * @param count          errors in the window
+     * @param total          errors since startup
+     * @param lastSeenMillis when the last one was recorded
+     */
+    public record TopError(Signature signature, long count, long total, long lastSeenMillis) {}
+
+    private static final class Counts {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private volatile long lastSeen;
+
+        void record(long now) {
+            long bucket = now / BUCKET_MILLIS;
+            int index = (int) (bucket % BUCKETS);
+            long current = buckets.get(index);
+            if (current != bucket && buckets.compareAndSet(index, current, bucket)) {
+                counts.set(index, 0);
+            }
+            counts.incrementAndGet(index);
+            total.increment();
+            lastSeen = now;
+        }
+
+        long sum(long now, int window) {
+            long sum = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (now - buckets.get(i) < window) {
+                    sum += counts.get(i);
+                }
+            }
+            return sum;
+        }
+    }
+}
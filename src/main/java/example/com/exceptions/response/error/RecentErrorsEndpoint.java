@@ -0,0 +1,76 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists the most recent errors at {@code /recent-errors} and, per window, the signatures counted most, e.g.
+ * {@code /recent-errors?limit=20}. Both come from {@link RecentErrors}; reading them never blocks recording.
+ * <p>
+ * The endpoint reports request paths and exception types, so it is sensitive like other management endpoints:
+ * enable it with {@code endpoints.recent-errors.sensitive=false} only where it is not reachable from outside, for
+ * instance on a separate {@code endpoints.all.port}.
+ */
+@Endpoint(id = "recent-errors")
+public class RecentErrorsEndpoint {
+
+    private final RecentErrors recentErrors;
+    private final int top;
+
+    RecentErrorsEndpoint(RecentErrors recentErrors, @Value("${error.recent.top:10}") int top) {
+        this.recentErrors = recentErrors;
+        this.top = top;
+    }
+
+    /**
+     * @param limit how many recent errors to list, 100 if not given, none if not positive
+     * @return the recent errors, newest first, and the top signatures per window
+     */
+    @Read
+    public Map<String, Object> errors(@Nullable Integer limit) {
+        List<Map<String, Object>> recent = new ArrayList<>();
+        for (RecentErrors.RecentError error : recentErrors.recent(limit == null ? 100 : limit)) {
+            Map<String, Object> entry = signature(error.signature());
+            entry.put("id", error.id());
+            entry.put("path", error.path());
+            entry.put("time", error.time().toString());
+            recent.add(entry);
+        }
+
+        Map<String, Object> windows = new LinkedHashMap<>();
+        recentErrors.top(top).forEach((window, errors) -> {
+            List<Map<String, Object>> entries = new ArrayList<>();
+            for (RecentErrors.TopError error : errors) {
+                Map<String, Object> entry = signature(error.signature());
+                entry.put("count", error.count());
+                entry.put("total", error.total());
+                entry.put("lastSeen", Instant.ofEpochMilli(error.lastSeenMillis()).toString());
+                entries.add(entry);
+            }
+            windows.put(window, entries);
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("recent", recent);
+        result.put("top", windows);
+        return result;
+    }
+
+    private static Map<String, Object> signature(RecentErrors.Signature signature) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("fingerprint", signature.id());
+        entry.put("status", signature.status());
+        entry.put("method", signature.method());
+        entry.put("route", signature.route());
+        entry.put("exception", signature.fingerprint() == null ? null : signature.fingerprint().type());
+        return entry;
+    }
+}
@@ -0,0 +1,226 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memory-mapped source files with a line-offset index, so code snippets are sliced out of memory instead of
+ * scanning the file from the start for every frame of every error. Files that cannot be mapped, such as entries
+ * of the source archives opened by {@link SourceLocator}, are read onto the heap once instead.
+ * <p>
+ * Entries are evicted least recently used once the held bytes exceed {@code error.source.cache.max-bytes}
+ * and are reloaded when the file's modification time changes. The modification time is checked at most once
+ * per {@code error.source.cache.check-interval-ms}.
+ */
+@Singleton
+public class SourceCache {
+
+    private final long maxBytes;
+    private final long checkIntervalNanos;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long size;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    SourceCache(@Value("${error.source.cache.max-bytes:16777216}") long maxBytes,
+                @Value("${error.source.cache.check-interval-ms:2000}") long checkIntervalMs) {
+        this.maxBytes = maxBytes;
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMs);
+    }
+
+    /**
+     * Returns a range of lines of a source file.
+     *
+     * @param path the source file
+     * @param from the first line, 1-based
+     * @param to   the last line, inclusive
+     * @return the lines that exist in that range, or {@code null} if the file cannot be read
+     */
+    public List<String> lines(Path path, int from, int to) {
+        Entry entry = entry(path);
+        if (entry == null) {
+            return null;
+        }
+        int first = Math.max(1, from);
+        int last = Math.min(to, entry.lineCount());
+        List<String> lines = new ArrayList<>(Math.max(0, last - first + 1));
+        for (int line = first; line <= last; line++) {
+            lines.add(entry.line(line));
+        }
+        return lines;
+    }
+
+    /**
+     * @return lookup counts since startup and the bytes currently held
+     */
+    public Stats stats() {
+        long mapped;
+        synchronized (entries) {
+            mapped = size;
+        }
+        return new Stats(hits.sum(), loads.sum(), failures.sum(), mapped);
+    }
+
+    private Entry entry(Path path) {
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(path);
+        }
+        if (entry != null && now - entry.checkedAt() < checkIntervalNanos) {
+            hits.increment();
+            return entry;
+        }
+        try {
+            if (!Files.isRegularFile(path)) {
+                failures.increment();
+                remove(path);
+                return null;
+            }
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (entry != null && entry.modified().equals(modified)) {
+                hits.increment();
+                entry = entry.checked(now);
+            } else {
+                entry = load(path, modified, now);
+                if (entry == null) {
+                    failures.increment();
+                    remove(path);
+                    return null;
+                }
+                loads.increment();
+            }
+        } catch (IOException e) {
+            failures.increment();
+            remove(path);
+            return null;
+        }
+        put(path, entry);
+        return entry;
+    }
+
+    private Entry load(Path path, FileTime modified, long now) throws IOException {
+        if (path.getFileSystem() != FileSystems.getDefault()) {
+            if (Files.size(path) > maxBytes) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            return new Entry(buffer, index(buffer), modified, now);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > maxBytes || fileSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            return new Entry(buffer, index(buffer), modified, now);
+        }
+    }
+
+    private static int[] index(ByteBuffer buffer) {
+        int[] offsets = new int[64];
+        int count = 0;
+        offsets[count++] = 0;
+        int limit = buffer.limit();
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = i + 1;
+            }
+        }
+        if (offsets[count - 1] != limit) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count + 1);
+            }
+            offsets[count++] = limit;
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    private void put(Path path, Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.put(path, entry);
+            if (previous != null) {
+                size -= previous.weight();
+            }
+            size += entry.weight();
+            Iterator<Map.Entry<Path, Entry>> eldest = entries.entrySet().iterator();
+            while (size > maxBytes && eldest.hasNext()) {
+                Map.Entry<Path, Entry> evicted = eldest.next();
+                if (evicted.getValue() == entry) {
+                    break;
+                }
+                size -= evicted.getValue().weight();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void remove(Path path) {
+        synchronized (entries) {
+            Entry previous = entries.remove(path);
+            if (previous != null) {
+                size -= previous.weight();
+            }
+        }
+    }
+
+    /**
+     * @param hits     lookups served from a file already held
+     * @param loads    files read and indexed
+     * @param failures lookups of files that are missing, unreadable or too large
+     * @param bytes    the weight of the files currently held
+     */
+    public record Stats(long hits, long loads, long failures, long bytes) {}
+
+    /**
+     * @param buffer    the mapped or heap copy of the file, only read through absolute slices so it can be shared
+     * @param offsets   the start offset of every line followed by the end of the file
+     * @param modified  the modification time the mapping was taken at
+     * @param checkedAt when the modification time was last compared, in {@link System#nanoTime()} units
+     */
+    private record Entry(ByteBuffer buffer, int[] offsets, FileTime modified, long checkedAt) {
+
+        int lineCount() {
+            return offsets.length - 1;
+        }
+
+        String line(int line) {
+            int start = offsets[line - 1];
+            int end = offsets[line];
+            while (end > start && (buffer.get(end - 1) == '\n' || buffer.get(end - 1) == '\r')) {
+                end--;
+            }
+            return StandardCharsets.UTF_8.decode(buffer.slice(start, end - start)).toString();
+        }
+
+        long weight() {
+            return buffer.capacity() + 4L * offsets.length;
+        }
+
+        Entry checked(long now) {
+            return new Entry(buffer, offsets, modified, now);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Value;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Finds the source file of a stack frame without touching the disk. At startup, every {@code .java} file under
+ * the directories in {@code error.source.roots} and in the {@code -sources.jar} archives listed in
+ * {@code error.source.jars}, either directly or as a directory holding them, is indexed by its path relative to
+ * the root. Archives are opened as zip file systems, which read only their central directory, and stay open, so
+ * the {@link Path}s returned for their entries can be read by {@link SourceCache}. Roots and archives listed
+ * first win when a file occurs more than once.
+ * <p>
+ * Lookups are cached per class, including the classes that have no source, up to
+ * {@code error.source.locator.max-cached} classes; past that, lookups still only consult the index.
+ */
+@Context
+public class SourceLocator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SourceLocator.class);
+
+    private final Map<String, Path> index;
+    private final List<FileSystem> archives = new ArrayList<>();
+    private final Map<String, Optional<Path>> located = new ConcurrentHashMap<>();
+    private final int maxCached;
+
+    /**
+     * @param roots     source directories
+     * @param jars      source archives, or directories holding {@code -sources.jar} files
+     * @param maxCached classes whose lookup result is cached
+     */
+    public SourceLocator(@Value("${error.source.roots:src/main/java}") List<String> roots,
+                         @Value("${error.source.jars:}") List<String> jars,
+                         @Value("${error.source.locator.max-cached:4096}") int maxCached) {
+        this.maxCached = maxCached;
+        Map<String, Path> files = new HashMap<>();
+        for (String root : roots) {
+            if (!root.isBlank()) {
+                index(Paths.get(root.trim()), files);
+            }
+        }
+        for (String jar : jars) {
+            if (!jar.isBlank()) {
+                for (Path archive : archives(Paths.get(jar.trim()))) {
+                    try {
+                        FileSystem fileSystem = FileSystems.newFileSystem(archive);
+                        archives.add(fileSystem);
+                        index(fileSystem.getPath("/"), files);
+                    } catch (IOException e) {
+                        LOG.warn("Skipping source archive {}: {}", archive, e.getMessage());
+                    }
+                }
+            }
+        }
+        this.index = Map.copyOf(files);
+        LOG.debug("Indexed {} source files", index.size());
+    }
+
+    /**
+     * @param element a stack frame
+     * @return its source file, or {@code null} if none was indexed
+     */
+    public Path locate(StackTraceElement element) {
+        String fileName = element.getFileName();
+        if (fileName == null) {
+            return null;
+        }
+        String className = element.getClassName();
+        Optional<Path> path = located.get(className);
+        if (path == null) {
+            int lastDot = className.lastIndexOf('.');
+            String relative = lastDot < 0
+                    ? fileName
+                    : className.substring(0, lastDot).replace('.', '/') + '/' + fileName;
+            path = Optional.ofNullable(index.get(relative));
+            if (located.size() < maxCached) {
+                located.put(className, path);
+            }
+        }
+        return path.orElse(null);
+    }
+
+    /**
+     * @return how many source files are indexed
+     */
+    public int size() {
+        return index.size();
+    }
+
+    @PreDestroy
+    void close() {
+        for (FileSystem archive : archives) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                LOG.debug("Failed to close source archive", e);
+            }
+        }
+    }
+
+    private static void index(Path root, Map<String, Path> files) {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(path -> path.toString().endsWith(".java"))
+                    .forEach(path -> files.putIfAbsent(relative(root, path), path));
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Skipping source root {}: {}", root, e.getMessage());
+        }
+    }
+
+    private static String relative(Path root, Path path) {
+        String relative = root.relativize(path).toString();
+        return root.getFileSystem().getSeparator().equals("/") ? relative : relative.replace('\\', '/');
+    }
+
+    private static List<Path> archives(Path location) {
+        if (!Files.isDirectory(location)) {
+            return Files.isRegularFile(location) ? List.of(location) : List.of();
+        }
+        List<Path> archives = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(location, "*-sources.jar")) {
+            stream.forEach(archives::add);
+        } catch (IOException e) {
+            LOG.warn("Skipping source archive directory {}: {}", location, e.getMessage());
+        }
+        archives.sort(null);
+        return archives;
+    }
+}
@@ -0,0 +1,157 @@
+package example.com.exceptions.response.error;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The lines of a stack trace, built in a single walk over {@link Throwable#getStackTrace()} and laid out like
+ * {@link Throwable#printStackTrace()}: causes and suppressed exceptions with their frames in common with the
+ * enclosing trace elided. Every line carries a filter flag so the filtered and full views render from the same list.
+ * <p>
+ * With {@link ErrorLimits}, each exception lists at most {@link ErrorLimits#maxFrames()} frames, messages are
+ * truncated and causes nested deeper than {@link ErrorLimits#maxCauseDepth()} are summarized in one line.
+ */
+public final class StackTraceModel {
+
+    private static final String CAUSE_CAPTION = "Caused by: ";
+    private static final String SUPPRESSED_CAPTION = "Suppressed: ";
+
+    private final Throwable throwable;
+    private final List<Line> lines;
+
+    private StackTraceModel(Throwable throwable, List<Line> lines) {
+        this.throwable = throwable;
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * @param throwable the exception
+     * @param filter    decides which frames and exceptions the filtered view hides
+     * @return the model
+     */
+    public static StackTraceModel of(Throwable throwable, FrameMatcher filter) {
+        return of(throwable, filter, ErrorLimits.UNLIMITED);
+    }
+
+    /**
+     * @param throwable the exception
+     * @param filter    decides which frames and exceptions the filtered view hides
+     * @param limits    bounds on frames, messages and nesting
+     * @return the model
+     */
+    public static StackTraceModel of(Throwable throwable, FrameMatcher filter, ErrorLimits limits) {
+        Builder builder = new Builder(filter, limits);
+        builder.exception(Kind.EXCEPTION, limits.describe(throwable), throwable);
+        StackTraceElement[] trace = throwable.getStackTrace();
+        builder.frames(trace, trace.length - 1, "");
+        Set<Throwable> dejaVu = Collections.newSetFromMap(new IdentityHashMap<>());
+        dejaVu.add(throwable);
+        for (Throwable suppressed : throwable.getSuppressed()) {
+            builder.enclosed(suppressed, trace, Kind.SUPPRESSED, SUPPRESSED_CAPTION, "\t", dejaVu, 1);
+        }
+        Throwable cause = throwable.getCause();
+        if (cause != null) {
+            builder.enclosed(cause, trace, Kind.CAUSE, CAUSE_CAPTION, "", dejaVu, 1);
+        }
+        return new StackTraceModel(throwable, builder.lines);
+    }
+
+    public Throwable throwable() {
+        return throwable;
+    }
+
+    /**
+     * @return every line, in {@link Throwable#printStackTrace()} order
+     */
+    public List<Line> lines() {
+        return lines;
+    }
+
+    /**
+     * The kind of a stack trace line.
+     */
+    public enum Kind {
+        EXCEPTION,
+        CAUSE,
+        SUPPRESSED,
+        FRAME,
+        ELIDED
+    }
+
+    /**
+     * @param kind     what the line shows
+     * @param text     the line as {@link Throwable#printStackTrace()} prints it
+     * @param element  the frame for {@link Kind#FRAME} lines, {@code null} otherwise
+     * @param filtered whether the filtered view hides the line
+     */
+    public record Line(Kind kind, String text, StackTraceElement element, boolean filtered) {}
+
+    private static final class Builder {
+        private final FrameMatcher filter;
+        private final ErrorLimits limits;
+        private final List<Line> lines = new ArrayList<>();
+
+        Builder(FrameMatcher filter, ErrorLimits limits) {
+            this.filter = filter;
+            this.limits = limits;
+        }
+
+        void exception(Kind kind, String text, Throwable throwable) {
+            lines.add(new Line(kind, text, null, filter.filtersClass(throwable.getClass().getName())));
+        }
+
+        void frame(String text, StackTraceElement element) {
+            lines.add(new Line(Kind.FRAME, text, element, filter.filters(element)));
+        }
+
+        void add(Kind kind, String text) {
+            lines.add(new Line(kind, text, null, false));
+        }
+
+        void frames(StackTraceElement[] trace, int last, String prefix) {
+            int shown = Math.min(last + 1, limits.maxFrames());
+            for (int i = 0; i < shown; i++) {
+                frame(prefix + "\tat " + trace[i], trace[i]);
+            }
+            if (shown <= last) {
+                add(Kind.ELIDED, prefix + "\t" + ErrorLimits.more(last + 1 - shown, "frames"));
+            }
+        }
+
+        void enclosed(Throwable throwable, StackTraceElement[] enclosingTrace, Kind kind, String caption,
+                      String prefix, Set<Throwable> dejaVu, int depth) {
+            if (!dejaVu.add(throwable)) {
+                add(kind, prefix + caption + "[CIRCULAR REFERENCE: " + limits.describe(throwable) + "]");
+                return;
+            }
+            if (depth > limits.maxCauseDepth()) {
+                add(kind, prefix + caption + ErrorLimits.more(ErrorLimits.causeCount(throwable), "nested exceptions"));
+                return;
+            }
+            StackTraceElement[] trace = throwable.getStackTrace();
+            int m = trace.length - 1;
+            int n = enclosingTrace.length - 1;
+            while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+                m--;
+                n--;
+            }
+            int framesInCommon = trace.length - 1 - m;
+
+            exception(kind, prefix + caption + limits.describe(throwable), throwable);
+            frames(trace, m, prefix);
+            if (framesInCommon != 0) {
+                add(Kind.ELIDED, prefix + "\t... " + framesInCommon + " more");
+            }
+            for (Throwable suppressed : throwable.getSuppressed()) {
+                enclosed(suppressed, trace, Kind.SUPPRESSED, SUPPRESSED_CAPTION, prefix + "\t", dejaVu, depth + 1);
+            }
+            Throwable cause = throwable.getCause();
+            if (cause != null) {
+                enclosed(cause, trace, Kind.CAUSE, CAUSE_CAPTION, prefix, dejaVu, depth + 1);
+            }
+        }
+    }
+}
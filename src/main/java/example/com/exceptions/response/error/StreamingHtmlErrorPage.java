@@ -0,0 +1,243 @@
+package example.com.exceptions.response.error;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * An HTML error page written as it is sent instead of built as one string. The first chunk holds the head and the
+ * static shell with the styles and scripts; the sections follow in chunks of about {@code chunkBytes}, each a
+ * buffer from the allocator that the subscriber releases once written. Fragments are rendered only when the
+ * subscriber requests a chunk, so an in-flight page holds the chunks requested but not yet written, which the
+ * server requests one at a time, whatever the size of the page.
+ * <p>
+ * Chunks are rendered on the given executor. The page can be subscribed to once; a page never subscribed to holds
+ * no buffers and no render slot, as the provider gives its slot back once the page is built, so pages that are
+ * never sent, such as for a {@code HEAD} request or a client gone before the body is written, leak nothing.
+ * {@link ErrorCompressionFilter} leaves streamed pages to the server's own compression.
+ */
+public final class StreamingHtmlErrorPage implements Publisher<ByteBuf> {
+
+    /**
+     * The request attribute holding the page, which {@link ErrorStreamingFilter} sends instead of the body.
+     */
+    public static final String ATTRIBUTE = StreamingHtmlErrorPage.class.getName();
+
+    private static final Subscription EMPTY = new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final Fragments fragments;
+    private final ByteBufAllocator allocator;
+    private final int chunkBytes;
+    private final Executor executor;
+    private final LongConsumer completion;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * @param fragments  writes the page
+     * @param allocator  allocates the chunks
+     * @param chunkBytes the size from which a chunk is sent
+     * @param executor   renders the chunks
+     * @param completion called with the size of the page once it was sent completely
+     */
+    StreamingHtmlErrorPage(Fragments fragments, ByteBufAllocator allocator, int chunkBytes, Executor executor,
+                           LongConsumer completion) {
+        this.fragments = fragments;
+        this.allocator = allocator;
+        this.chunkBytes = chunkBytes;
+        this.executor = executor;
+        this.completion = completion;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuf> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(EMPTY);
+            subscriber.onError(new IllegalStateException("An error page can only be streamed once"));
+            return;
+        }
+        subscriber.onSubscribe(new ChunkSubscription(subscriber));
+    }
+
+    /**
+     * The content of a page, written one small fragment at a time.
+     */
+    @FunctionalInterface
+    interface Fragments {
+
+        /**
+         * @param chunk the chunk to write the next fragment to
+         * @return {@code false} once the page is complete and nothing was written
+         */
+        boolean next(Chunk chunk);
+    }
+
+    /**
+     * The chunk being filled.
+     */
+    static final class Chunk {
+        private final StringBuilder scratch = new StringBuilder(256);
+        private ByteBuf buffer;
+        private boolean flush;
+        private long written;
+
+        /**
+         * @return an empty builder for a fragment, shared by all fragments of the page
+         */
+        StringBuilder builder() {
+            scratch.setLength(0);
+            return scratch;
+        }
+
+        Chunk text(CharSequence text) {
+            written += ByteBufUtil.writeUtf8(buffer, text);
+            return this;
+        }
+
+        Chunk bytes(byte[] bytes) {
+            buffer.writeBytes(bytes);
+            written += bytes.length;
+            return this;
+        }
+
+        /**
+         * Sends the chunk after the current fragment, however small.
+         */
+        void flush() {
+            flush = true;
+        }
+
+        /**
+         * @return the UTF-8 bytes written to the page so far
+         */
+        long written() {
+            return written;
+        }
+    }
+
+    private final class ChunkSubscription implements Subscription, Runnable {
+        private final Subscriber<? super ByteBuf> subscriber;
+        private final Chunk chunk = new Chunk();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile boolean invalid;
+        private boolean exhausted;
+        private boolean done;
+
+        ChunkSubscription(Subscriber<? super ByteBuf> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalid = true;
+            } else {
+                requested.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    drain();
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            try {
+                while (!cancelled) {
+                    if (invalid) {
+                        done = true;
+                        subscriber.onError(new IllegalArgumentException("Chunks must be requested in positive numbers"));
+                        return;
+                    }
+                    if (requested.get() == 0) {
+                        return;
+                    }
+                    ByteBuf next = nextChunk();
+                    if (next == null) {
+                        done = true;
+                        subscriber.onComplete();
+                        completion.accept(chunk.written);
+                        return;
+                    }
+                    requested.decrementAndGet();
+                    subscriber.onNext(next);
+                }
+                done = true;
+            } catch (RuntimeException e) {
+                done = true;
+                subscriber.onError(e);
+            }
+        }
+
+        private ByteBuf nextChunk() {
+            if (exhausted) {
+                return null;
+            }
+            ByteBuf buffer = allocator.buffer(chunkBytes);
+            chunk.buffer = buffer;
+            chunk.flush = false;
+            try {
+                while ((!chunk.flush || buffer.readableBytes() == 0) && buffer.readableBytes() < chunkBytes) {
+                    if (!fragments.next(chunk)) {
+                        exhausted = true;
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                buffer.release();
+                throw e;
+            } finally {
+                chunk.buffer = null;
+            }
+            if (buffer.readableBytes() == 0) {
+                buffer.release();
+                return null;
+            }
+            return buffer;
+        }
+    }
+}
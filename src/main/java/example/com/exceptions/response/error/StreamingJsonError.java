@@ -0,0 +1,199 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.http.hateoas.JsonError;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A JSON error body that keeps references to what it reports instead of copying them into maps.
+ * {@link StreamingJsonErrorSerializer} writes it straight into the response in the shape of
+ * {@link DefaultJsonProvider.ExtendedJsonError}, so clients see the same payload.
+ */
+@Serdeable.Serializable(using = StreamingJsonErrorSerializer.class)
+public class StreamingJsonError extends JsonError {
+
+    /**
+     * Bytes charged per member on top of its value, enough for the quoted key, the colon and the separator.
+     */
+    static final int MEMBER_BYTES = 24;
+
+    private final int status;
+    private final String error;
+    private String timestamp;
+    private String self;
+    private List<Error> errors;
+    private ExceptionDetails exception;
+
+    /**
+     * @param message the error message
+     * @param status  the HTTP status code
+     * @param error   the HTTP status reason
+     */
+    public StreamingJsonError(String message, int status, String error) {
+        super(message);
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public StreamingJsonError timestamp(String timestamp) {
+        this.timestamp = timestamp;
+        return this;
+    }
+
+    /**
+     * @return the {@code self} link, or {@code null}
+     */
+    public String getSelf() {
+        return self;
+    }
+
+    public StreamingJsonError self(String href) {
+        this.self = href;
+        return this;
+    }
+
+    /**
+     * @return the validation errors written under {@code errors}, or {@code null} when there are fewer than two
+     */
+    public List<Error> getErrors() {
+        return errors;
+    }
+
+    public StreamingJsonError errors(List<Error> errors) {
+        this.errors = errors;
+        return this;
+    }
+
+    public ExceptionDetails getException() {
+        return exception;
+    }
+
+    public StreamingJsonError exception(ExceptionDetails exception) {
+        this.exception = exception;
+        return this;
+    }
+
+    /**
+     * @param value a string member, may be {@code null} when it is omitted
+     * @return an upper bound of the bytes it adds to the body: its UTF-8 length as an escaped JSON string, plus
+     * {@link #MEMBER_BYTES}
+     */
+    static long bytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long bytes = MEMBER_BYTES + ErrorLimits.utf8Length(value);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20) {
+                bytes += 5;
+            } else if (c == '"' || c == '\\') {
+                bytes++;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * The {@code exception} member, extracted once per root cause and shared by every body reporting it.
+     *
+     * @param type       the exception class name
+     * @param message    the exception message, may be {@code null}
+     * @param stackTrace the unfiltered frames, or {@code null} when the exception has no stack trace
+     * @param causes     the cause chain, outermost first
+     * @param size       an upper bound of the bytes the member adds to a body, as counted by {@link #bytes(String)}
+     */
+    public record ExceptionDetails(String type, String message, List<String> stackTrace, List<Cause> causes,
+                                   long size) {
+
+        /**
+         * Extracts the details within half of {@code error.limits.max-body-bytes}, charging every string in UTF-8
+         * bytes; the type and message come first, then the causes and then the frames.
+         *
+         * @param stackTrace the stack trace of the root cause
+         * @param limits     bounds on messages, causes and the size of the member
+         * @return the details, listing the unfiltered frames of the root cause itself
+         */
+        public static ExceptionDetails of(StackTraceModel stackTrace, ErrorLimits limits) {
+            Throwable throwable = stackTrace.throwable();
+            String type = throwable.getClass().getName();
+            String message = limits.truncate(throwable.getMessage());
+            long budget = limits.maxBodyBytes() / 2 - MEMBER_BYTES - bytes(type) - bytes(message);
+
+            List<Cause> causes = new ArrayList<>();
+            Throwable cause = throwable.getCause();
+            while (cause != null && cause != throwable) {
+                Cause next = new Cause(cause.getClass().getName(), limits.truncate(cause.getMessage()));
+                long size = MEMBER_BYTES + bytes(next.type()) + bytes(next.message());
+                if (causes.size() == limits.maxCauseDepth() || size > budget - MEMBER_BYTES) {
+                    Cause marker = new Cause(ErrorLimits.more(ErrorLimits.causeCount(cause), "causes"), null);
+                    causes.add(marker);
+                    budget -= MEMBER_BYTES + bytes(marker.type());
+                    break;
+                }
+                causes.add(next);
+                budget -= size;
+                cause = cause.getCause();
+            }
+
+            List<StackTraceModel.Line> lines = stackTrace.lines();
+            int end = 1;
+            while (end < lines.size() && lines.get(end).kind() == StackTraceModel.Kind.FRAME) {
+                end++;
+            }
+            List<String> frames = null;
+            if (end > 1) {
+                frames = new ArrayList<>(end - 1);
+                budget -= MEMBER_BYTES;
+                boolean cut = false;
+                for (int i = 1; i < end; i++) {
+                    StackTraceModel.Line line = lines.get(i);
+                    if (line.filtered()) {
+                        continue;
+                    }
+                    String frame = line.element().toString();
+                    // keep room for the marker
+                    if (bytes(frame) > budget - MEMBER_BYTES) {
+                        String marker = ErrorLimits.more(throwable.getStackTrace().length - (i - 1), "frames");
+                        frames.add(marker);
+                        budget -= bytes(marker);
+                        cut = true;
+                        break;
+                    }
+                    frames.add(frame);
+                    budget -= bytes(frame);
+                }
+                if (!cut && end < lines.size() && lines.get(end).kind() == StackTraceModel.Kind.ELIDED) {
+                    String elided = lines.get(end).text().strip();
+                    frames.add(elided);
+                    budget -= bytes(elided);
+                }
+                frames = Collections.unmodifiableList(frames);
+            }
+            return new ExceptionDetails(type, message, frames, List.copyOf(causes),
+                    limits.maxBodyBytes() / 2 - budget);
+        }
+    }
+
+    /**
+     * @param type    the cause class name
+     * @param message the cause message, may be {@code null}
+     */
+    public record Cause(String type, String message) {}
+}
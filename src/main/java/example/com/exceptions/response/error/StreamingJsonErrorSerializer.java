@@ -0,0 +1,114 @@
+package example.com.exceptions.response.error;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.serde.Encoder;
+import io.micronaut.serde.Serializer;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes a {@link StreamingJsonError} member by member into the encoder, without building the maps and lists
+ * that reflective serialization of {@link DefaultJsonProvider.ExtendedJsonError} needed. Absent values are
+ * omitted, as they are for the introspected type.
+ */
+@Singleton
+public class StreamingJsonErrorSerializer implements Serializer<StreamingJsonError> {
+
+    @Override
+    public void serialize(Encoder encoder, EncoderContext context, Argument<? extends StreamingJsonError> type,
+                          StreamingJsonError value) throws IOException {
+        Encoder object = encoder.encodeObject(type);
+
+        string(object, "message", value.getMessage());
+        optional(object, "logref", value.getLogref());
+        optional(object, "path", value.getPath());
+        if (value.getSelf() != null) {
+            object.encodeKey("_links");
+            Encoder links = object.encodeObject(Argument.OBJECT_ARGUMENT);
+            links.encodeKey("self");
+            Encoder self = links.encodeArray(Argument.OBJECT_ARGUMENT);
+            Encoder link = self.encodeObject(Argument.OBJECT_ARGUMENT);
+            string(link, "href", value.getSelf());
+            link.encodeKey("templated");
+            link.encodeBoolean(false);
+            link.finishStructure();
+            self.finishStructure();
+            links.finishStructure();
+        }
+        string(object, "timestamp", value.getTimestamp());
+        object.encodeKey("status");
+        object.encodeInt(value.getStatus());
+        string(object, "error", value.getError());
+
+        List<Error> errors = value.getErrors();
+        if (errors != null) {
+            object.encodeKey("errors");
+            Encoder array = object.encodeArray(Argument.OBJECT_ARGUMENT);
+            for (Error error : errors) {
+                Encoder item = array.encodeObject(Argument.OBJECT_ARGUMENT);
+                string(item, "message", error.getMessage());
+                optional(item, "path", error.getPath());
+                item.finishStructure();
+            }
+            array.finishStructure();
+        }
+
+        StreamingJsonError.ExceptionDetails exception = value.getException();
+        if (exception != null) {
+            object.encodeKey("exception");
+            writeException(object, exception);
+        }
+
+        object.finishStructure();
+    }
+
+    @Override
+    public boolean isEmpty(EncoderContext context, StreamingJsonError value) {
+        return value == null;
+    }
+
+    private static void writeException(Encoder encoder, StreamingJsonError.ExceptionDetails exception)
+            throws IOException {
+        Encoder object = encoder.encodeObject(Argument.OBJECT_ARGUMENT);
+        string(object, "type", exception.type());
+        string(object, "message", exception.message());
+        if (exception.stackTrace() != null) {
+            object.encodeKey("stackTrace");
+            Encoder frames = object.encodeArray(Argument.listOf(String.class));
+            for (String frame : exception.stackTrace()) {
+                frames.encodeString(frame);
+            }
+            frames.finishStructure();
+        }
+        if (!exception.causes().isEmpty()) {
+            object.encodeKey("causes");
+            Encoder causes = object.encodeArray(Argument.OBJECT_ARGUMENT);
+            for (StreamingJsonError.Cause cause : exception.causes()) {
+                Encoder item = causes.encodeObject(Argument.OBJECT_ARGUMENT);
+                string(item, "type", cause.type());
+                string(item, "message", cause.message());
+                item.finishStructure();
+            }
+            causes.finishStructure();
+        }
+        object.finishStructure();
+    }
+
+    private static void string(Encoder encoder, String key, String value) throws IOException {
+        if (value != null) {
+            encoder.encodeKey(key);
+            encoder.encodeString(value);
+        }
+    }
+
+    private static void optional(Encoder encoder, String key, Optional<String> value) throws IOException {
+        if (value.isPresent()) {
+            encoder.encodeKey(key);
+            encoder.encodeString(value.get());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package example.com;
+
+import example.com.exceptions.response.error.DefaultHtmlProvider;
+import example.com.exceptions.response.error.DefaultJsonProvider;
+import example.com.exceptions.response.error.ErrorFormat;
+import example.com.exceptions.response.error.ErrorModel;
+import example.com.exceptions.response.error.ErrorModels;
+import example.com.exceptions.response.error.StreamingHtmlErrorPage;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.hateoas.JsonError;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(startApplication = false)
+@Property(name = "error.offload.enabled", value = "false")
+class CompactErrorFormatTest {
+
+    @Inject
+    DefaultHtmlProvider htmlProvider;
+
+    @Inject
+    DefaultJsonProvider jsonProvider;
+
+    @Inject
+    ErrorModels errorModels;
+
+    @Test
+    void skipsTheHtmlPageForCompactFormats() {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.GET, "/deep", null)
+                .header(HttpHeaders.ACCEPT, "application/cbor");
+        String html = htmlProvider.body(errorContext(request), HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertFalse(html.contains("stack-line"));
+        assertFalse(html.contains("JSON Response"));
+        assertTrue(request.getAttribute(StreamingHtmlErrorPage.ATTRIBUTE).isEmpty());
+        ErrorModel model = request.getAttribute(ErrorModels.ATTRIBUTE, ErrorModel.class).orElseThrow();
+        assertEquals(500, model.status());
+    }
+
+    @Test
+    void skipsTheJsonBodyForCompactFormats() {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.GET, "/deep", null)
+                .header(HttpHeaders.ACCEPT, "text/plain");
+        JsonError body = jsonProvider.body(errorContext(request), HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertEquals("Internal Server Error", body.getMessage());
+        assertTrue(request.getAttribute(ErrorModels.ATTRIBUTE).isPresent());
+    }
+
+    @Test
+    void rendersTheFullPageOnTies() {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.GET, "/deep", null)
+                .header(HttpHeaders.ACCEPT, "application/cbor, text/html");
+        String html = htmlProvider.body(errorContext(request), HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertTrue(html.contains("stack-line"));
+    }
+
+    @Test
+    void writesValidationPathsAsPathsNotPointers() {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.POST, "/orders", null);
+        List<Error> errors = List.of(error("must not be blank", "create.body.name"),
+                error("must be positive", "create.body.quantity"));
+        ErrorModel model = errorModels.of(errorContext(request, errors), HttpResponse.status(HttpStatus.BAD_REQUEST));
+
+        String json = new String(ErrorFormat.PROBLEM_JSON.write(model), StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("{\"detail\":\"must not be blank\",\"path\":\"create.body.name\"}"));
+        assertFalse(json.contains("pointer"));
+    }
+
+    private static Error error(String message, String path) {
+        return new Error() {
+            @Override
+            public String getMessage() {
+                return message;
+            }
+
+            @Override
+            public Optional<String> getPath() {
+                return Optional.of(path);
+            }
+        };
+    }
+
+    private static ErrorContext errorContext(HttpRequest<?> request) {
+        return errorContext(request, List.of());
+    }
+
+    private static ErrorContext errorContext(HttpRequest<?> request, List<Error> errors) {
+        RuntimeException exception = new RuntimeException("deep");
+        return new ErrorContext() {
+            @Override
+            public HttpRequest<?> getRequest() {
+                return request;
+            }
+
+            @Override
+            public Optional<Throwable> getRootCause() {
+                return Optional.of(exception);
+            }
+
+            @Override
+            public List<Error> getErrors() {
+                return errors;
+            }
+        };
+    }
+}
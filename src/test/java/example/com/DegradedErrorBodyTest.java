@@ -0,0 +1,73 @@
+package example.com;
+
+import example.com.exceptions.response.error.DefaultHtmlProvider;
+import example.com.exceptions.response.error.DefaultJsonProvider;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.hateoas.JsonError;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(startApplication = false)
+@Property(name = "error.degraded.max-concurrent-renders", value = "0")
+class DegradedErrorBodyTest {
+
+    @Inject
+    DefaultHtmlProvider htmlProvider;
+
+    @Inject
+    DefaultJsonProvider jsonProvider;
+
+    @Test
+    void customReasonsAreNotServedToOtherErrors() {
+        String custom = htmlProvider.body(errorContext(), HttpResponse.status(HttpStatus.NOT_FOUND, "No such order"));
+        String standard = htmlProvider.body(errorContext(), HttpResponse.status(HttpStatus.NOT_FOUND));
+
+        assertTrue(custom.contains("No such order"));
+        assertFalse(standard.contains("No such order"));
+        assertTrue(standard.contains("Not Found"));
+    }
+
+    @Test
+    void jsonBodiesAreNotShared() {
+        JsonError custom = jsonProvider.body(errorContext(), HttpResponse.status(HttpStatus.NOT_FOUND, "No such order"));
+        JsonError standard = jsonProvider.body(errorContext(), HttpResponse.status(HttpStatus.NOT_FOUND));
+        JsonError again = jsonProvider.body(errorContext(), HttpResponse.status(HttpStatus.NOT_FOUND));
+
+        assertEquals("No such order", custom.getMessage());
+        assertEquals("Not Found", standard.getMessage());
+        assertNotSame(standard, again);
+    }
+
+    private static ErrorContext errorContext() {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.GET, "/orders/42", null);
+        return new ErrorContext() {
+            @Override
+            public HttpRequest<?> getRequest() {
+                return request;
+            }
+
+            @Override
+            public Optional<Throwable> getRootCause() {
+                return Optional.empty();
+            }
+
+            @Override
+            public List<Error> getErrors() {
+                return List.of();
+            }
+        };
+    }
+}
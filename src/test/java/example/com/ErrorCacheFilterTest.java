@@ -0,0 +1,102 @@
+package example.com;
+
+import example.com.exceptions.response.error.DefaultHtmlProvider;
+import example.com.exceptions.response.error.ErrorCacheFilter;
+import example.com.exceptions.response.error.ErrorIdFilter;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(startApplication = false)
+@Property(name = "micronaut.environment", value = "production")
+class ErrorCacheFilterTest {
+
+    @Inject
+    DefaultHtmlProvider htmlProvider;
+
+    @Inject
+    ErrorCacheFilter cacheFilter;
+
+    @Inject
+    ErrorIdFilter idFilter;
+
+    @Test
+    void tagsProductionPagesWithTheShippedDefaults() {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.GET, "/missing", null);
+        MutableHttpResponse<?> response = send(request, HttpStatus.NOT_FOUND);
+
+        assertFalse(response.body().toString().contains("Request Information"));
+        String etag = response.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals("public, max-age=300", response.getHeaders().get(HttpHeaders.CACHE_CONTROL));
+
+        assertNull(response.getHeaders().get(ErrorIdFilter.HEADER));
+
+        HttpRequest<?> other = new SimpleHttpRequest<>(HttpMethod.GET, "/elsewhere", null);
+        assertEquals(etag, send(other, HttpStatus.NOT_FOUND).getHeaders().get(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void answersMatchingRequestsWithNotModified() {
+        String etag = send(new SimpleHttpRequest<>(HttpMethod.GET, "/missing", null), HttpStatus.NOT_FOUND)
+                .getHeaders().get(HttpHeaders.ETAG);
+
+        HttpRequest<?> revalidation = new SimpleHttpRequest<>(HttpMethod.GET, "/missing", null)
+                .header(HttpHeaders.IF_NONE_MATCH, etag);
+        MutableHttpResponse<?> response = send(revalidation, HttpStatus.NOT_FOUND);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatus());
+        assertNull(response.body());
+    }
+
+    @Test
+    void leavesOtherStatusesUntagged() {
+        MutableHttpResponse<?> response = send(new SimpleHttpRequest<>(HttpMethod.GET, "/broken", null),
+                HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertNull(response.getHeaders().get(HttpHeaders.ETAG));
+        assertNotNull(response.getHeaders().get(ErrorIdFilter.HEADER));
+    }
+
+    private MutableHttpResponse<?> send(HttpRequest<?> request, HttpStatus status) {
+        MutableHttpResponse<Object> response = HttpResponse.status(status);
+        response.body(htmlProvider.body(errorContext(request), response));
+        idFilter.addErrorId(request, response);
+        cacheFilter.cache(request, response);
+        return response;
+    }
+
+    private static ErrorContext errorContext(HttpRequest<?> request) {
+        return new ErrorContext() {
+            @Override
+            public HttpRequest<?> getRequest() {
+                return request;
+            }
+
+            @Override
+            public Optional<Throwable> getRootCause() {
+                return Optional.empty();
+            }
+
+            @Override
+            public List<Error> getErrors() {
+                return List.of();
+            }
+        };
+    }
+}
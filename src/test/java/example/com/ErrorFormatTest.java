@@ -0,0 +1,66 @@
+package example.com;
+
+import example.com.exceptions.response.error.CborWriter;
+import example.com.exceptions.response.error.ErrorFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorFormatTest {
+
+    @Test
+    void encodesCborAsTheSpecificationExamples() {
+        assertEquals("00", hex(new CborWriter().integer(0)));
+        assertEquals("17", hex(new CborWriter().integer(23)));
+        assertEquals("1818", hex(new CborWriter().integer(24)));
+        assertEquals("1903e8", hex(new CborWriter().integer(1000)));
+        assertEquals("1a000f4240", hex(new CborWriter().integer(1000000)));
+        assertEquals("1b000000e8d4a51000", hex(new CborWriter().integer(1000000000000L)));
+        assertEquals("20", hex(new CborWriter().integer(-1)));
+        assertEquals("3903e7", hex(new CborWriter().integer(-1000)));
+        assertEquals("6449455446", hex(new CborWriter().text("IETF")));
+        assertEquals("62c3bc", hex(new CborWriter().text("ü")));
+        assertEquals("f6", hex(new CborWriter().text(null)));
+        assertEquals("83010203", hex(new CborWriter().array(3).integer(1).integer(2).integer(3)));
+        assertEquals("a26161016162820203",
+                hex(new CborWriter().map(2).text("a").integer(1).text("b").array(2).integer(2).integer(3)));
+    }
+
+    @Test
+    void growsPastTheInitialCapacity() {
+        String text = "x".repeat(300);
+        byte[] bytes = new CborWriter(4).text(text).toByteArray();
+        assertEquals(303, bytes.length);
+        assertEquals((byte) 0x79, bytes[0]);
+    }
+
+    @Test
+    void negotiatesOnlyPreferredCompactFormats() {
+        assertEquals(ErrorFormat.PROBLEM_JSON, ErrorFormat.negotiate("application/problem+json"));
+        assertEquals(ErrorFormat.CBOR, ErrorFormat.negotiate("application/json;q=0.5, application/cbor"));
+        assertEquals(ErrorFormat.TEXT, ErrorFormat.negotiate("text/plain, text/html;q=0.9"));
+        assertNull(ErrorFormat.negotiate("application/json, application/cbor"));
+        assertNull(ErrorFormat.negotiate("text/html, text/plain;q=0.8"));
+        assertNull(ErrorFormat.negotiate("*/*"));
+        assertNull(ErrorFormat.negotiate("application/cbor;q=0"));
+        assertNull(ErrorFormat.negotiate(null));
+    }
+
+    @Test
+    void keepsTheDefaultBodyOnTies() {
+        assertNull(ErrorFormat.negotiate("application/problem+json, application/json"));
+        assertNull(ErrorFormat.negotiate("application/json, application/problem+json"));
+        assertNull(ErrorFormat.negotiate("application/cbor;q=0.8, text/html;q=0.8"));
+        assertNull(ErrorFormat.negotiate("application/cbor, */*"));
+        assertNull(ErrorFormat.negotiate("application/cbor, application/json, text/plain"));
+        assertEquals(ErrorFormat.CBOR, ErrorFormat.negotiate("application/cbor, text/plain"));
+        assertEquals(ErrorFormat.TEXT, ErrorFormat.negotiate("text/plain, application/cbor"));
+        assertEquals(ErrorFormat.PROBLEM_JSON, ErrorFormat.negotiate("application/problem+json, application/json;q=0.9"));
+    }
+
+    private static String hex(CborWriter writer) {
+        return HexFormat.of().formatHex(writer.toByteArray());
+    }
+}
@@ -0,0 +1,53 @@
+package example.com;
+
+import example.com.exceptions.response.error.ErrorFragmentCache;
+import example.com.exceptions.response.error.ErrorFragmentCache.Fragment;
+import example.com.exceptions.response.error.ErrorFragmentCache.Key;
+import example.com.exceptions.response.error.ErrorLimits;
+import example.com.exceptions.response.error.FrameMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorFragmentCacheTest {
+
+    private static final FrameMatcher NO_FILTER = new FrameMatcher(List.of(), List.of(), false);
+    private static final ErrorLimits LIMITS = new ErrorLimits(10, 100, 100, 4, 1000);
+
+    @Test
+    void keysCompareMessagesNotTheirHashes() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        Key aa = key(exception("Aa"));
+        Key bb = key(exception("BB"));
+
+        assertEquals(aa.fingerprint(), bb.fingerprint());
+        assertNotEquals(aa, bb);
+        assertEquals(aa, key(exception("Aa")));
+    }
+
+    @Test
+    void keysCoverSuppressedExceptions() {
+        RuntimeException plain = exception("failed");
+        RuntimeException withSuppressed = exception("failed");
+        withSuppressed.addSuppressed(exception("cleanup failed"));
+        RuntimeException withOtherSuppressed = exception("failed");
+        withOtherSuppressed.addSuppressed(new IllegalStateException("cleanup failed"));
+
+        assertNotEquals(key(plain), key(withSuppressed));
+        assertNotEquals(key(withSuppressed), key(withOtherSuppressed));
+    }
+
+    private static Key key(Throwable throwable) {
+        return ErrorFragmentCache.key(throwable, NO_FILTER, LIMITS, Fragment.STACK_TRACE);
+    }
+
+    private static RuntimeException exception(String message) {
+        RuntimeException exception = new RuntimeException(message);
+        exception.setStackTrace(new StackTraceElement[]{
+                new StackTraceElement("com.acme.Orders", "create", "Orders.java", 42)});
+        return exception;
+    }
+}
@@ -0,0 +1,103 @@
+package example.com;
+
+import example.com.exceptions.response.error.ErrorLimits;
+import example.com.exceptions.response.error.FrameMatcher;
+import example.com.exceptions.response.error.StackTraceModel;
+import io.micronaut.http.server.exceptions.response.Error;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorLimitsTest {
+
+    private static final FrameMatcher NO_FILTER = new FrameMatcher(List.of(), List.of(), false);
+
+    @Test
+    void truncatesLongMessages() {
+        ErrorLimits limits = new ErrorLimits(10, 5, 100, 2, 1000);
+        assertEquals("short", limits.truncate("short"));
+        assertEquals("abcde… 3 more characters", limits.truncate("abcdefgh"));
+        assertNull(limits.truncate(null));
+    }
+
+    @Test
+    void limitsFramesPerException() {
+        RuntimeException exception = new RuntimeException("deep");
+        exception.setStackTrace(frames(1000));
+
+        StackTraceModel model = StackTraceModel.of(exception, NO_FILTER, new ErrorLimits(10, 100, 100, 2, 1000));
+
+        assertEquals(1 + 10 + 1, model.lines().size());
+        assertEquals("\t… 990 more frames", model.lines().getLast().text());
+    }
+
+    @Test
+    void summarizesDeepCauseChains() {
+        Throwable exception = new IllegalStateException("level 0");
+        for (int level = 1; level <= 20; level++) {
+            exception = new IllegalStateException("level " + level, exception);
+            exception.setStackTrace(new StackTraceElement[0]);
+        }
+
+        StackTraceModel model = StackTraceModel.of(exception, NO_FILTER, new ErrorLimits(10, 100, 100, 3, 1000));
+
+        List<StackTraceModel.Line> causes = model.lines().stream()
+                .filter(line -> line.kind() == StackTraceModel.Kind.CAUSE)
+                .toList();
+        assertEquals(4, causes.size());
+        assertEquals("Caused by: … 17 more nested exceptions", causes.getLast().text());
+    }
+
+    @Test
+    void countsUtf8Bytes() {
+        assertEquals(3, ErrorLimits.utf8Length("abc"));
+        assertEquals(7, ErrorLimits.utf8Length("Grüße"));
+        assertEquals(4, ErrorLimits.utf8Length("😀"));
+    }
+
+    @Test
+    void cutsUtf8PrefixesAtCharacterBoundaries() {
+        assertEquals(3, ErrorLimits.utf8Prefix("abcdef", 3));
+        assertEquals(2, ErrorLimits.utf8Prefix("Grüße", 3));
+        assertEquals(3, ErrorLimits.utf8Prefix("Grüße", 4));
+        assertEquals(0, ErrorLimits.utf8Prefix("😀", 3));
+        assertEquals(2, ErrorLimits.utf8Prefix("😀", 4));
+        assertEquals(0, ErrorLimits.utf8Prefix("abc", -1));
+    }
+
+    @Test
+    void capsValidationErrors() {
+        ErrorLimits limits = new ErrorLimits(10, 100, 100, 2, 1000, 2);
+        List<Error> errors = List.of(() -> "first", () -> "second", () -> "third", () -> "fourth");
+
+        List<Error> capped = limits.errors(errors);
+
+        assertEquals(3, capped.size());
+        assertEquals("second", capped.get(1).getMessage());
+        assertEquals("… 2 more errors", capped.get(2).getMessage());
+        assertEquals(2, limits.errors(errors.subList(0, 2)).size());
+    }
+
+    @Test
+    void truncatesEveryKeptValidationError() {
+        ErrorLimits limits = new ErrorLimits(10, 5, 100, 2, 1000, 10);
+        Error error = () -> "abcdefgh";
+        Error fits = () -> "abc";
+
+        List<Error> truncated = limits.errors(List.of(error, error, fits));
+
+        assertEquals("abcde… 3 more characters", truncated.get(0).getMessage());
+        assertEquals("abcde… 3 more characters", truncated.get(1).getMessage());
+        assertSame(fits, truncated.get(2));
+    }
+
+    private static StackTraceElement[] frames(int count) {
+        StackTraceElement[] frames = new StackTraceElement[count];
+        for (int i = 0; i < count; i++) {
+            frames[i] = new StackTraceElement("example.com.Recursive", "call", "Recursive.java", i + 1);
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,36 @@
+package example.com;
+
+import example.com.exceptions.response.error.ErrorPageTemplate;
+import example.com.exceptions.response.error.ErrorPageTemplate.Slot;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorPageTemplateTest {
+
+    @Test
+    void rendersSlotsAndInlinesIncludes() {
+        ErrorPageTemplate template = ErrorPageTemplate.compile(
+                "<title>{{status}} — {{title}}</title><style>{{styles}}</style><main>{{ sections }}</main>",
+                Map.of("styles", "body { margin: 0; }"));
+
+        String[] values = ErrorPageTemplate.newValues();
+        values[Slot.STATUS.ordinal()] = "404";
+        values[Slot.TITLE.ordinal()] = "Not Found";
+
+        String expected = "<title>404 — Not Found</title><style>body { margin: 0; }</style><main></main>";
+        assertEquals(expected, template.render(values));
+        assertEquals(3, template.slotCount());
+        assertEquals("<title>", template.text(0));
+        assertArrayEquals(" — ".getBytes(StandardCharsets.UTF_8), template.bytes(1));
+        assertEquals(Slot.SECTIONS, template.slot(2));
+    }
+
+    @Test
+    void rejectsUnknownPlaceholders() {
+        assertThrows(IllegalArgumentException.class, () -> ErrorPageTemplate.compile("{{missing}}", Map.of()));
+    }
+}
@@ -0,0 +1,85 @@
+package example.com;
+
+import example.com.exceptions.response.error.ErrorTimestamps;
+import example.com.exceptions.response.error.ErrorTimestamps.Precision;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.exceptions.ConfigurationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorTimestampsTest {
+
+    private static final Instant INSTANT = Instant.parse("2024-05-01T12:30:45.012345678Z");
+
+    private static ErrorTimestamps timestamps(Precision precision, Instant instant) {
+        return new ErrorTimestamps(precision, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    @Test
+    void formatsIso8601InUtcAtEachPrecision() {
+        assertEquals("2024-05-01T12:30:45Z", timestamps(Precision.SECONDS, INSTANT).now());
+        assertEquals("2024-05-01T12:30:45.012Z", timestamps(Precision.MILLIS, INSTANT).now());
+        assertEquals("2024-05-01T12:30:45.012345Z", timestamps(Precision.MICROS, INSTANT).now());
+    }
+
+    @Test
+    void readsThePrecisionWhateverTheDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try (ApplicationContext context = ApplicationContext.run(Map.of("error.timestamp.precision", "millis"))) {
+            assertTrue(context.getBean(ErrorTimestamps.class).now().matches(".*\\.\\d{3}Z"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void rejectsUnknownPrecisionsNamingTheProperty() {
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> {
+            try (ApplicationContext context = ApplicationContext.run(Map.of("error.timestamp.precision", "nanos"))) {
+                context.getBean(ErrorTimestamps.class);
+            }
+        });
+        Throwable cause = failure;
+        while (cause != null && !(cause instanceof ConfigurationException)) {
+            cause = cause.getCause();
+        }
+        assertNotNull(cause, "no ConfigurationException in " + failure);
+        assertTrue(cause.getMessage().contains("error.timestamp.precision"));
+        assertTrue(cause.getMessage().contains("seconds, millis, micros"));
+    }
+
+    @Test
+    void refreshesTheCachedSecond() {
+        Instant[] now = {INSTANT};
+        ErrorTimestamps timestamps = new ErrorTimestamps(Precision.MILLIS, new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now[0];
+            }
+        });
+        assertEquals("2024-05-01T12:30:45.012Z", timestamps.now());
+        now[0] = Instant.parse("2024-05-01T23:59:59.999Z");
+        assertEquals("2024-05-01T23:59:59.999Z", timestamps.now());
+        now[0] = Instant.parse("2024-05-02T00:00:00Z");
+        assertEquals("2024-05-02T00:00:00.000Z", timestamps.now());
+    }
+}
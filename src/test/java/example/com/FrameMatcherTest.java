@@ -0,0 +1,31 @@
+package example.com;
+
+import example.com.exceptions.response.error.FrameMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameMatcherTest {
+
+    private final FrameMatcher matcher = new FrameMatcher(
+            List.of("io.micronaut.", "io.netty.", "jdk.internal."),
+            List.of("*$$Lambda*"),
+            true);
+
+    @Test
+    void filtersConfiguredPrefixes() {
+        assertTrue(matcher.filtersClass("io.netty.channel.AbstractChannelHandlerContext"));
+        assertTrue(matcher.filtersClass("jdk.internal.reflect.DirectMethodHandleAccessor"));
+        assertFalse(matcher.filtersClass("io.micronautx.Other"));
+        assertFalse(matcher.filtersClass("example.com.exceptions.response.error.ErrorController"));
+    }
+
+    @Test
+    void filtersPatternsAndUnknownSources() {
+        assertTrue(matcher.filtersClass("example.com.Service$$Lambda/0x0000000801234"));
+        assertTrue(matcher.filters(new StackTraceElement("example.com.Service", "run", null, -1)));
+        assertFalse(matcher.filters(new StackTraceElement("example.com.Service", "run", "Service.java", 12)));
+    }
+}
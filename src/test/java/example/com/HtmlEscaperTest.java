@@ -0,0 +1,35 @@
+package example.com;
+
+import example.com.exceptions.response.error.HtmlEscaper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlEscaperTest {
+
+    @Test
+    void escapesMarkupCharacters() {
+        assertEquals("&lt;script&gt;alert(&quot;x&quot; &amp; &#39;y&#39;)&lt;/script&gt;",
+                HtmlEscaper.escape("<script>alert(\"x\" & 'y')</script>"));
+    }
+
+    @Test
+    void returnsCleanTextUnchanged() {
+        String clean = "\tat example.com.Service.run(Service.java:12)";
+        assertSame(clean, HtmlEscaper.escape(clean));
+        assertEquals("", HtmlEscaper.escape(null));
+    }
+
+    @Test
+    void appendsIntoTheBuilder() {
+        StringBuilder out = new StringBuilder("<div>");
+        HtmlEscaper.escape(out, "List<String> a & b").append("</div>");
+        HtmlEscaper.escape(out, null);
+        assertEquals("<div>List&lt;String&gt; a &amp; b</div>", out.toString());
+    }
+
+    @Test
+    void leavesNonAsciiAlone() {
+        assertEquals("Größe → 42 &gt; 41", HtmlEscaper.escape("Größe → 42 > 41"));
+    }
+}
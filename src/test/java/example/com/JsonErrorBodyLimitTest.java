@@ -0,0 +1,113 @@
+package example.com;
+
+import example.com.exceptions.response.error.DefaultJsonProvider;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.hateoas.JsonError;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(startApplication = false)
+@Property(name = "micronaut.environment", value = "development")
+@Property(name = "error.limits.max-body-bytes", value = "4096")
+@Property(name = "error.limits.max-message-length", value = "1000")
+class JsonErrorBodyLimitTest {
+
+    private static final int MAX_BODY_BYTES = 4096;
+
+    @Inject
+    DefaultJsonProvider jsonProvider;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Test
+    void keepsLargeErrorsWithinTheBodyLimit() throws IOException {
+        List<Error> errors = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String message = "ü\"\n".repeat(400);
+            String path = "order.lines[" + i + "].sku";
+            errors.add(new Error() {
+                @Override
+                public String getMessage() {
+                    return message;
+                }
+
+                @Override
+                public Optional<String> getPath() {
+                    return Optional.of(path);
+                }
+            });
+        }
+        JsonError body = jsonProvider.body(errorContext(deepException(), errors),
+                HttpResponse.status(HttpStatus.BAD_REQUEST, "Ungültig ".repeat(300)));
+
+        String json = new String(objectMapper.writeValueAsBytes(body), StandardCharsets.UTF_8);
+
+        assertTrue(json.getBytes(StandardCharsets.UTF_8).length <= MAX_BODY_BYTES,
+                json.getBytes(StandardCharsets.UTF_8).length + " bytes");
+        assertTrue(json.contains("more errors"));
+    }
+
+    @Test
+    void keepsDeepExceptionsWithinTheBodyLimit() throws IOException {
+        JsonError body = jsonProvider.body(errorContext(deepException(), List.of()),
+                HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        String json = new String(objectMapper.writeValueAsBytes(body), StandardCharsets.UTF_8);
+
+        assertTrue(json.getBytes(StandardCharsets.UTF_8).length <= MAX_BODY_BYTES,
+                json.getBytes(StandardCharsets.UTF_8).length + " bytes");
+        assertTrue(json.contains("\"exception\""));
+        assertTrue(json.contains("more"));
+    }
+
+    private static Throwable deepException() {
+        Throwable exception = null;
+        for (int level = 0; level < 16; level++) {
+            exception = new IllegalStateException("Größe ".repeat(200) + level, exception);
+            StackTraceElement[] trace = new StackTraceElement[500];
+            for (int i = 0; i < trace.length; i++) {
+                trace[i] = new StackTraceElement("com.acme.Orders", "level" + i, "Orders.java", i + 1);
+            }
+            exception.setStackTrace(trace);
+        }
+        return exception;
+    }
+
+    private static ErrorContext errorContext(Throwable exception, List<Error> errors) {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.POST, "/orders/" + "x".repeat(500), null);
+        return new ErrorContext() {
+            @Override
+            public HttpRequest<?> getRequest() {
+                return request;
+            }
+
+            @Override
+            public Optional<Throwable> getRootCause() {
+                return Optional.of(exception);
+            }
+
+            @Override
+            public List<Error> getErrors() {
+                return errors;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package example.com;
+
+import example.com.exceptions.response.error.ErrorFingerprint;
+import example.com.exceptions.response.error.RecentErrors;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentErrorsTest {
+
+    @Test
+    void assignsUniqueIds() {
+        RecentErrors recentErrors = new RecentErrors(16, 16);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(ids.add(recentErrors.id(null)));
+        }
+    }
+
+    @Test
+    void keepsTheMostRecentErrorsNewestFirst() {
+        RecentErrors recentErrors = new RecentErrors(4, 16);
+        for (int i = 0; i < 6; i++) {
+            recentErrors.record("e" + i, 500, null, null);
+        }
+
+        List<RecentErrors.RecentError> recent = recentErrors.recent(10);
+        assertEquals(List.of("e5", "e4", "e3", "e2"), recent.stream().map(RecentErrors.RecentError::id).toList());
+        assertEquals(List.of("e5", "e4"), recentErrors.recent(2).stream().map(RecentErrors.RecentError::id).toList());
+        assertEquals(List.of(), recentErrors.recent(-1));
+        assertTrue(recentErrors.top(-1).values().stream().allMatch(List::isEmpty));
+    }
+
+    @Test
+    void countsSignaturesAndRanksThem() {
+        RecentErrors recentErrors = new RecentErrors(8, 16);
+        ErrorFingerprint frequent = ErrorFingerprint.of(new IllegalStateException("a"));
+        ErrorFingerprint rare = ErrorFingerprint.of(new IllegalArgumentException("b"));
+        for (int i = 0; i < 5; i++) {
+            recentErrors.record("f" + i, 500, null, frequent);
+        }
+        recentErrors.record("r", 500, null, rare);
+        recentErrors.record("n", 404, null, null);
+
+        Map<String, List<RecentErrors.TopError>> top = recentErrors.top(2);
+        assertEquals(List.of("1m", "5m", "15m"), List.copyOf(top.keySet()));
+        List<RecentErrors.TopError> lastMinute = top.get("1m");
+        assertEquals(2, lastMinute.size());
+        assertEquals(frequent, lastMinute.getFirst().signature().fingerprint());
+        assertEquals(5, lastMinute.getFirst().count());
+        assertEquals(1, lastMinute.get(1).count());
+    }
+
+    @Test
+    void groupsSignaturesBeyondTheBound() {
+        RecentErrors recentErrors = new RecentErrors(8, 2);
+        for (int status = 500; status < 510; status++) {
+            recentErrors.record("s" + status, status, null, null);
+        }
+
+        List<RecentErrors.TopError> top = recentErrors.top(10).get("15m");
+        assertEquals(3, top.size());
+        assertEquals(8, top.getFirst().count());
+        assertEquals(0, top.getFirst().signature().status());
+    }
+}
@@ -0,0 +1,56 @@
+package example.com;
+
+import example.com.exceptions.response.error.SourceLocator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceLocatorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void locatesSourcesInRootsAndArchives() throws IOException {
+        Path root = directory.resolve("src");
+        Files.createDirectories(root.resolve("com/acme"));
+        Files.writeString(root.resolve("com/acme/Orders.java"), "class Orders {}\n");
+
+        Path jars = Files.createDirectories(directory.resolve("libs"));
+        try (OutputStream out = Files.newOutputStream(jars.resolve("billing-1.0-sources.jar"));
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("com/acme/billing/Invoice.java"));
+            zip.write("class Invoice {}\n".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        SourceLocator locator = new SourceLocator(List.of(root.toString()), List.of(jars.toString()), 16);
+        assertEquals(2, locator.size());
+
+        Path orders = locator.locate(new StackTraceElement("com.acme.Orders$Line", "price", "Orders.java", 1));
+        assertEquals(root.resolve("com/acme/Orders.java"), orders);
+
+        Path invoice = locator.locate(new StackTraceElement("com.acme.billing.Invoice", "total", "Invoice.java", 1));
+        assertNotNull(invoice);
+        assertEquals("class Invoice {}\n", Files.readString(invoice));
+
+        assertNull(locator.locate(new StackTraceElement("java.lang.Thread", "run", "Thread.java", 1)));
+        assertNull(locator.locate(new StackTraceElement("com.acme.Generated", "call", null, -1)));
+    }
+
+    @Test
+    void ignoresMissingRoots() {
+        SourceLocator locator = new SourceLocator(List.of(directory.resolve("missing").toString()), List.of(""), 16);
+        assertEquals(0, locator.size());
+    }
+}
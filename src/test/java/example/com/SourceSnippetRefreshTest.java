@@ -0,0 +1,78 @@
+package example.com;
+
+import example.com.exceptions.response.error.DefaultHtmlProvider;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceSnippetRefreshTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void showsEditedSourcesForARepeatedError() throws IOException {
+        Path source = Files.createDirectories(directory.resolve("com/acme")).resolve("Widget.java");
+        Files.writeString(source, widget(41));
+        RuntimeException exception = new RuntimeException("broken widget");
+        exception.setStackTrace(new StackTraceElement[]{
+                new StackTraceElement("com.acme.Widget", "answer", "Widget.java", 3)});
+
+        try (ApplicationContext context = ApplicationContext.run(Map.of(
+                "error.source.roots", directory.toString(),
+                "error.source.cache.check-interval-ms", 0,
+                "error.offload.enabled", false))) {
+            DefaultHtmlProvider provider = context.getBean(DefaultHtmlProvider.class);
+            assertTrue(render(provider, exception).contains("return 41;"));
+
+            Files.writeString(source, widget(42));
+            Files.setLastModifiedTime(source, FileTime.from(Instant.now().plusSeconds(10)));
+
+            String html = render(provider, exception);
+            assertTrue(html.contains("return 42;"));
+            assertFalse(html.contains("return 41;"));
+        }
+    }
+
+    private static String widget(int answer) {
+        return "class Widget {\n    int answer() {\n        return " + answer + ";\n    }\n}\n";
+    }
+
+    private static String render(DefaultHtmlProvider provider, Throwable exception) {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.GET, "/widget", null);
+        return provider.body(new ErrorContext() {
+            @Override
+            public HttpRequest<?> getRequest() {
+                return request;
+            }
+
+            @Override
+            public Optional<Throwable> getRootCause() {
+                return Optional.of(exception);
+            }
+
+            @Override
+            public List<Error> getErrors() {
+                return List.of();
+            }
+        }, HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+}
@@ -0,0 +1,194 @@
+package example.com;
+
+import example.com.exceptions.response.error.DefaultHtmlProvider;
+import example.com.exceptions.response.error.StreamingHtmlErrorPage;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.server.exceptions.response.Error;
+import io.micronaut.http.server.exceptions.response.ErrorContext;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.netty.buffer.ByteBuf;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(startApplication = false)
+@Property(name = "error.offload.enabled", value = "false")
+@Property(name = "error.degraded.max-concurrent-renders", value = "1")
+class StreamingHtmlErrorPageTest {
+
+    private static final int CHUNK_BYTES = 8192;
+
+    @Inject
+    DefaultHtmlProvider htmlProvider;
+
+    @Test
+    void streamsTenThousandFramesInBoundedChunksWithShippedLimits() {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.GET, "/deep", null);
+        String placeholder = htmlProvider.body(errorContext(request, exception(10_000)),
+                HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertTrue(placeholder.contains("<h2>500</h2>"));
+        StreamingHtmlErrorPage page = request.getAttribute(StreamingHtmlErrorPage.ATTRIBUTE, StreamingHtmlErrorPage.class)
+                .orElseThrow();
+
+        Collector collector = new Collector(Long.MAX_VALUE);
+        page.subscribe(collector);
+
+        assertTrue(collector.completed);
+        assertNull(collector.failure);
+        assertEquals(1, collector.maxOutstanding);
+        String head = collector.chunks.getFirst();
+        assertTrue(head.contains("<style>"));
+        assertTrue(head.contains("<script>"));
+        assertFalse(head.contains("stack-line"));
+        assertTrue(collector.chunks.size() > 3);
+        for (int i = 1; i < collector.chunks.size(); i++) {
+            assertTrue(collector.sizes.get(i) < 2 * CHUNK_BYTES, "chunk " + i + " has " + collector.sizes.get(i) + " bytes");
+        }
+
+        String html = String.join("", collector.chunks);
+        assertTrue(html.contains("at com.acme.Deep.level0(Deep.java:1)"));
+        assertTrue(html.contains("at com.acme.Deep.level255(Deep.java:256)"));
+        assertFalse(html.contains("at com.acme.Deep.level256(Deep.java:257)"));
+        assertTrue(html.contains("… 9744 more frames"));
+        assertTrue(html.indexOf("filtered-stack-trace") < html.indexOf("full-stack-trace"));
+        assertTrue(html.contains("Request Information"));
+        assertTrue(html.contains("JSON Response"));
+        assertFalse(html.contains("more bytes"));
+        assertTrue(html.strip().endsWith("</html>"));
+    }
+
+    @Test
+    void releasesTheRenderSlotOfPagesNeverSubscribedTo() {
+        for (int i = 0; i < 3; i++) {
+            HttpRequest<?> abandoned = new SimpleHttpRequest<>(HttpMethod.HEAD, "/deep", null);
+            htmlProvider.body(errorContext(abandoned, exception(10_000)),
+                    HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+            assertTrue(abandoned.getAttribute(StreamingHtmlErrorPage.ATTRIBUTE).isPresent());
+        }
+
+        HttpRequest<?> full = new SimpleHttpRequest<>(HttpMethod.GET, "/shallow", null);
+        String html = htmlProvider.body(errorContext(full, exception(10)),
+                HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertTrue(html.contains("stack-line"));
+    }
+
+    @Test
+    void stopsOnCancel() {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.GET, "/deep", null);
+        htmlProvider.body(errorContext(request, exception(10_000)), HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+        StreamingHtmlErrorPage page = request.getAttribute(StreamingHtmlErrorPage.ATTRIBUTE, StreamingHtmlErrorPage.class)
+                .orElseThrow();
+
+        Collector collector = new Collector(3);
+        page.subscribe(collector);
+
+        assertEquals(3, collector.chunks.size());
+        assertFalse(collector.completed);
+        assertNull(collector.failure);
+
+        Collector second = new Collector(Long.MAX_VALUE);
+        page.subscribe(second);
+        assertInstanceOf(IllegalStateException.class, second.failure);
+    }
+
+    @Test
+    void rendersShortTracesAsString() {
+        HttpRequest<?> request = new SimpleHttpRequest<>(HttpMethod.GET, "/shallow", null);
+        String html = htmlProvider.body(errorContext(request, exception(10)),
+                HttpResponse.status(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertTrue(request.getAttribute(StreamingHtmlErrorPage.ATTRIBUTE).isEmpty());
+        assertTrue(html.contains("at com.acme.Deep.level9(Deep.java:10)"));
+    }
+
+    private static RuntimeException exception(int frames) {
+        RuntimeException exception = new RuntimeException("deep");
+        StackTraceElement[] trace = new StackTraceElement[frames];
+        for (int i = 0; i < frames; i++) {
+            trace[i] = new StackTraceElement("com.acme.Deep", "level" + i, "Deep.java", i + 1);
+        }
+        exception.setStackTrace(trace);
+        return exception;
+    }
+
+    private static ErrorContext errorContext(HttpRequest<?> request, Throwable exception) {
+        return new ErrorContext() {
+            @Override
+            public HttpRequest<?> getRequest() {
+                return request;
+            }
+
+            @Override
+            public Optional<Throwable> getRootCause() {
+                return Optional.of(exception);
+            }
+
+            @Override
+            public List<Error> getErrors() {
+                return List.of();
+            }
+        };
+    }
+
+    /**
+     * Requests one chunk at a time, releasing each before asking for the next, and cancels after {@code limit}.
+     */
+    private static final class Collector implements Subscriber<ByteBuf> {
+        private final long limit;
+        private final List<String> chunks = new ArrayList<>();
+        private final List<Integer> sizes = new ArrayList<>();
+        private Subscription subscription;
+        private int outstanding;
+        private int maxOutstanding;
+        private boolean completed;
+        private Throwable failure;
+
+        Collector(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ByteBuf chunk) {
+            maxOutstanding = Math.max(maxOutstanding, ++outstanding);
+            assertEquals(1, chunk.refCnt());
+            sizes.add(chunk.readableBytes());
+            chunks.add(chunk.toString(StandardCharsets.UTF_8));
+            chunk.release();
+            outstanding--;
+            if (chunks.size() < limit) {
+                subscription.request(1);
+            } else {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}